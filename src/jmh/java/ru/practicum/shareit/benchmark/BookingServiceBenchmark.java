@@ -0,0 +1,38 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private String state;
+
+    private BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext context) {
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<OutputBookingDto> getBookingsForOwner(SeededContext context) {
+        return bookingService.getBookingsForOwner(context.randomOwnerId(), state, 0, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public List<OutputBookingDto> getUsersBooking(SeededContext context) {
+        return bookingService.getUsersBooking(context.randomBookerId(), state, 0, PAGE_SIZE, null);
+    }
+}
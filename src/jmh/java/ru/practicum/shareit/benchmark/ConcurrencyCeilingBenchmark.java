@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузка на HTTP из числа клиентов, заметно большего пула Tomcat (ServerContext.TOMCAT_THREADS):
+ * на платформенных потоках пропускная способность упирается в пул, на виртуальных - в пул соединений с базой.
+ * Вариант virtualThreads=true запускать на Java 21: mvn -Pbenchmark verify -Djmh.include=ConcurrencyCeiling
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrencyCeilingBenchmark {
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp(ServerContext context) {
+        client = HttpClient.newHttpClient();
+        baseUrl = context.baseUrl();
+    }
+
+    @Benchmark
+    public int ownerBookings(ServerContext context) throws IOException, InterruptedException {
+        return get("/bookings/owner?state=ALL&size=10", context.randomOwnerId());
+    }
+
+    @Benchmark
+    public int ownerItems(ServerContext context) throws IOException, InterruptedException {
+        return get("/items", context.randomOwnerId());
+    }
+
+    private int get(String path, int userId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSearchBenchmark {
+    //широкий запрос, узкий запрос, короткий запрос без триграмм и запрос без совпадений
+    @Param({"дрель", "номер 4242", "мо", "самокат"})
+    private String text;
+
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext context) {
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @Benchmark
+    public List<ItemDto> getItemsByContextSearch() {
+        return itemService.getItemsByContextSearch(text);
+    }
+}
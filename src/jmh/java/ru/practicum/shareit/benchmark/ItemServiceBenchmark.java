@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemOutDtoWithDate;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemServiceBenchmark {
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext context) {
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @Benchmark
+    public List<ItemOutDtoWithDate> getUsersItems(SeededContext context) {
+        return itemService.getUsersItems(context.randomOwnerId());
+    }
+
+    //владелец видит последнее и следующее бронирование - это путь getMagicBookings
+    @Benchmark
+    public ItemOutDtoWithDate getItemDtoByIdAsOwner(SeededContext context) {
+        int itemId = context.randomItemId();
+        return itemService.getItemDtoById(itemId, SeededContext.ownerOf(itemId));
+    }
+
+    @Benchmark
+    public ItemOutDtoWithDate getItemDtoByIdAsBooker(SeededContext context) {
+        return itemService.getItemDtoById(context.randomItemId(), context.randomBookerId());
+    }
+}
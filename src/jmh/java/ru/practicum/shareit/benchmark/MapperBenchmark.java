@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.MagicBookings;
+import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemOutDtoWithDate;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    private static final int COMMENTS = 20;
+
+    private Item item;
+    private Booking booking;
+    private List<Comment> comments;
+    private MagicBookings magicBookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User owner = user(1);
+        User booker = user(2);
+        item = new Item();
+        item.setId(1);
+        item.setName("Дрель модель 1");
+        item.setDescription("Надежная вещь номер 1");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        LocalDateTime now = LocalDateTime.now();
+        booking = new Booking();
+        booking.setId(1);
+        booking.setStart(now.minusDays(2));
+        booking.setEnd(now.minusDays(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.APPROVED);
+        comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(new Comment(i, "Отзыв " + i, item, booker, now.minusHours(i)));
+        }
+        magicBookings = new MagicBookings();
+        magicBookings.setLastBooking(BookingMapper.toBookDtoForItem(booking));
+        magicBookings.setNextBooking(BookingMapper.toBookDtoForItem(booking));
+    }
+
+    @Benchmark
+    public ItemOutDtoWithDate toItemOutDtoWithDate() {
+        return ItemMapper.toItemOutDtoWithDate(item, comments, magicBookings);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public OutputBookingDto bookingToOutput() {
+        return BookingMapper.toOutput(booking);
+    }
+
+    private User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Пользователь " + id);
+        user.setEmail("user" + id + "@shareit.ru");
+        return user;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.config.IdSequences;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Контекст приложения на H2 (профиль test), заполненный данными объема, близкого к рабочему.
+ */
+@State(Scope.Benchmark)
+public class SeededContext {
+    public static final int USERS = 1000;
+    public static final int OWNERS = 50;
+    public static final int ITEMS_PER_OWNER = 200;
+    public static final int BOOKINGS_PER_ITEM = 10;
+    public static final int COMMENTS_PER_ITEM = 2;
+    private static final String[] ITEM_NAMES = {"Дрель", "Шуруповерт", "Палатка", "Велосипед"};
+    private static final int BATCH_SIZE = 1000;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = application().run(arguments().toArray(new String[0]));
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ItemSearchIndex.class).rebuild();
+        ItemBookingSummaryService summaryService = context.getBean(ItemBookingSummaryService.class);
+        for (int itemId = 1; itemId <= OWNERS * ITEMS_PER_OWNER; itemId++) {
+            summaryService.recompute(itemId);
+        }
+    }
+
+    protected SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE);
+    }
+
+    protected List<String> arguments() {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--logging.level.root=WARN");
+        arguments.add("--logging.level.org.springframework.transaction.interceptor=WARN");
+        arguments.add("--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        return arguments;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int randomOwnerId() {
+        return ThreadLocalRandom.current().nextInt(OWNERS) + 1;
+    }
+
+    public int randomBookerId() {
+        return OWNERS + ThreadLocalRandom.current().nextInt(USERS - OWNERS) + 1;
+    }
+
+    public int randomItemId() {
+        return ThreadLocalRandom.current().nextInt(OWNERS * ITEMS_PER_OWNER) + 1;
+    }
+
+    public static int ownerOf(int itemId) {
+        return (itemId - 1) / ITEMS_PER_OWNER + 1;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (int id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "Пользователь " + id, "user" + id + "@shareit.ru"});
+        }
+        batchInsert(jdbcTemplate, "INSERT INTO USERS (ID, NAME, EMAIL) VALUES (?, ?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int id = 1; id <= OWNERS * ITEMS_PER_OWNER; id++) {
+            items.add(new Object[]{id, ITEM_NAMES[id % ITEM_NAMES.length] + " модель " + id,
+                    "Надежная вещь номер " + id, true, ownerOf(id)});
+        }
+        batchInsert(jdbcTemplate,
+                "INSERT INTO ITEMS (ID, NAME, DESCRIPTION, IS_AVIALABLE, OWNER_ID) VALUES (?, ?, ?, ?, ?)", items);
+
+        //бронирования вещи не пересекаются: половина в прошлом, половина в будущем
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusDays(BOOKINGS_PER_ITEM / 2 * 3);
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int itemId = 1; itemId <= OWNERS * ITEMS_PER_OWNER; itemId++) {
+            for (int k = 0; k < BOOKINGS_PER_ITEM; k++) {
+                LocalDateTime start = base.plusDays(3L * k);
+                BookingStatus status = k % 5 == 0 ? BookingStatus.WAITING
+                        : k % 7 == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED;
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)), itemId,
+                        bookerOf(itemId, k), status.getCode(), ownerOf(itemId)});
+            }
+            for (int k = 0; k < COMMENTS_PER_ITEM; k++) {
+                comments.add(new Object[]{"Отзыв " + k + " о вещи " + itemId, itemId, bookerOf(itemId, k),
+                        Timestamp.valueOf(base.plusDays(k))});
+            }
+        }
+        batchInsert(jdbcTemplate,
+                "INSERT INTO BOOKINGS (START_DATE, END_DATE, ITEM_ID, BOOKER_ID, STATUS_CODE, OWNER_ID) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                bookings);
+        batchInsert(jdbcTemplate, "INSERT INTO COMMENTS (TEXT, ITEM_ID, AUTHOR_ID, CREATED) VALUES (?, ?, ?, ?)",
+                comments);
+        //пользователи и вещи вставлены с явными id - новые должны начинаться после них
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            IdSequences.advancePastMaxId(connection);
+            return null;
+        });
+    }
+
+    private int bookerOf(int itemId, int k) {
+        return OWNERS + (itemId + k) % (USERS - OWNERS) + 1;
+    }
+
+    private void batchInsert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
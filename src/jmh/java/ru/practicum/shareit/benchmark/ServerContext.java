@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * То же приложение с данными, но с настоящим Tomcat на случайном порту:
+ * на платформенных потоках (пул Tomcat ограничен) или на виртуальных (нужна Java 21).
+ */
+@State(Scope.Benchmark)
+public class ServerContext extends SeededContext {
+    public static final int TOMCAT_THREADS = 50;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Override
+    protected SpringApplicationBuilder application() {
+        return super.application().web(WebApplicationType.SERVLET);
+    }
+
+    @Override
+    protected List<String> arguments() {
+        List<String> arguments = super.arguments();
+        arguments.add("--server.port=0");
+        arguments.add("--server.tomcat.threads.max=" + TOMCAT_THREADS);
+        arguments.add("--shareit.threads.virtual=" + virtualThreads);
+        return arguments;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + getBean(Environment.class).getProperty("local.server.port");
+    }
+}
@@ -0,0 +1,17 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import ru.practicum.shareit.config.IdSequences;
+
+/**
+ * В существующей базе (baseline на версии 0) V1 только создает последовательности, а USERS и ITEMS уже заполнены -
+ * без сдвига первые же вставки получили бы занятые id. RESTART WITH принимает только число, поэтому
+ * MAX(ID) читается отдельным запросом - так шаг одинаково работает на PostgreSQL и H2.
+ */
+public class V1_1__Advance_id_sequences extends BaseJavaMigration {
+    @Override
+    public void migrate(Context context) throws Exception {
+        IdSequences.advancePastMaxId(context.getConnection());
+    }
+}
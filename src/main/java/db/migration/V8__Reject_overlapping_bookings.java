@@ -0,0 +1,17 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import ru.practicum.shareit.config.BookingOverlaps;
+
+/**
+ * Пересекающиеся бронирования, оставленные прежней проверкой, отклоняются одним проходом по бронированиям,
+ * упорядоченным по вещи и началу. Дальше непересечение держит сама проверка при создании: она выполняется
+ * под блокировкой строки вещи, а отклоненное бронирование снова действующим не становится.
+ */
+public class V8__Reject_overlapping_bookings extends BaseJavaMigration {
+    @Override
+    public void migrate(Context context) throws Exception {
+        BookingOverlaps.rejectOverlapping(context.getConnection());
+    }
+}
@@ -2,16 +2,32 @@ package ru.practicum.shareit;
 
 public enum BookingStatus {
 
-    WAITING("WAITING"),
-    APPROVED("APPROVED"),
-    REJECTED("REJECTED");
+    WAITING("WAITING", (short) 1),
+    APPROVED("APPROVED", (short) 2),
+    REJECTED("REJECTED", (short) 3);
     private final String  name;
+    //значение в BOOKINGS.STATUS_CODE (booking.model.BookingStatusConverter)
+    private final short code;
 
-    BookingStatus(String name) {
+    BookingStatus(String name, short code) {
         this.name = name;
+        this.code = code;
     }
 
     public String getName() {
         return name;
     }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static BookingStatus fromCode(short code) {
+        for (BookingStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный код статуса бронирования: " + code);
+    }
 }
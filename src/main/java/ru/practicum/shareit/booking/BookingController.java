@@ -1,15 +1,29 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.state.BookingPerspective;
+import ru.practicum.shareit.booking.state.BookingState;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 import java.util.List;
 
+@Validated
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    //пакет подтверждается одной транзакцией и читается одним IN (...) - больше не принимаем
+    private static final int MAX_APPROVALS = 100;
     private final BookingService bookingService;
 
     public BookingController(BookingService bookingService) {
@@ -28,6 +42,16 @@ public class BookingController {
         return bookingService.updateBooking(userId, bookingId, isApprove);
     }
 
+    //пакетное подтверждение: [{"bookingId": 1, "approved": true}, ...] - одна транзакция, результат по каждому id
+    @PatchMapping("/approvals")
+    public List<BookingApprovalResultDto> approveBookings(@RequestHeader(value = "X-Sharer-User-Id") Integer userId,
+                                                          @RequestBody
+                                                          @NotEmpty(message = "Пустой пакет подтверждений")
+                                                          @Size(max = MAX_APPROVALS, message = "Слишком много подтверждений в пакете")
+                                                          List<@Valid BookingApprovalDto> approvals) {
+        return bookingService.updateBookings(userId, approvals);
+    }
+
     @GetMapping("/{bookingId}")
     public OutputBookingDto getBooking(@RequestHeader(value = "X-Sharer-User-Id") Integer userId, @PathVariable("bookingId") Integer bookingId) {
         return bookingService.getBookingById(bookingId, userId);
@@ -35,13 +59,34 @@ public class BookingController {
 
     @GetMapping
     public List<OutputBookingDto> getBookingsForUser(@RequestHeader(value = "X-Sharer-User-Id") Integer userId,
-                                                  @RequestParam(name = "state", defaultValue = "ALL") String state) {
-        return bookingService.getUsersBooking(userId, state);
+                                                  @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                  @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                  @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                  @RequestParam(name = "cursor", required = false) String cursor,
+                                                  HttpServletResponse response) {
+        return withNextCursor(bookingService.getUsersBooking(userId, state, from, size, cursor),
+                BookingPerspective.BOOKER, state, size, response);
     }
 
     @GetMapping("/owner")
     public List<OutputBookingDto> getBookingsForOwner(@RequestHeader(value = "X-Sharer-User-Id") Integer userId,
-                                                  @RequestParam(name = "state", defaultValue = "ALL") String state) {
-        return bookingService.getBookingsForOwner(userId, state);
+                                                  @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                  @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                  @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                  @RequestParam(name = "cursor", required = false) String cursor,
+                                                  HttpServletResponse response) {
+        return withNextCursor(bookingService.getBookingsForOwner(userId, state, from, size, cursor),
+                BookingPerspective.OWNER, state, size, response);
+    }
+
+    //полная страница - значит, дальше могут быть еще записи, отдаем курсор на следующую.
+    //state здесь уже проверен сервисом
+    private List<OutputBookingDto> withNextCursor(List<OutputBookingDto> bookings, BookingPerspective perspective,
+                                                  String state, Integer size, HttpServletResponse response) {
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.setHeader(NEXT_CURSOR_HEADER, BookingCursor.encode(perspective, BookingState.parse(state),
+                    bookings.get(bookings.size() - 1)));
+        }
+        return bookings;
     }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+public class BookingApprovalDto {
+    @NotNull(message = "Не указано, какое бронирование подтверждается")
+    private Integer bookingId;
+    private Boolean approved;
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.state.BookingPerspective;
+import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор для постраничной выдачи бронирований: позиция (start, id) последней отданной записи.
+ * Курсор помнит, для какой выборки (сторона и state) он выдан: в другой выборке та же позиция дала бы
+ * сдвинутое окно, поэтому такой курсор отклоняется.
+ */
+@Getter
+public class BookingCursor {
+    private static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Integer.MAX_VALUE);
+    private static final String SEPARATOR = "|";
+    private static final int PARTS = 4;
+
+    private final LocalDateTime start;
+    private final Integer id;
+
+    private BookingCursor(LocalDateTime start, Integer id) {
+        this.start = start;
+        this.id = id;
+    }
+
+    public static BookingCursor first() {
+        return FIRST;
+    }
+
+    public static boolean isEmpty(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+
+    public static BookingCursor decode(String cursor, BookingPerspective perspective, BookingState state) {
+        if (isEmpty(cursor)) {
+            return FIRST;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+        if (parts.length != PARTS) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+        if (!perspective.getTag().equals(parts[0]) || !state.name().equals(parts[1])) {
+            throw new ValidationException("Курсор выдан для другой выборки: " + parts[0] + " " + parts[1]);
+        }
+        try {
+            return new BookingCursor(LocalDateTime.parse(parts[2]), Integer.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public static String encode(BookingPerspective perspective, BookingState state, OutputBookingDto booking) {
+        String value = perspective.getTag() + SEPARATOR + state.name() + SEPARATOR +
+                booking.getStart() + SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking.dto;
 
+import ru.practicum.shareit.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
 public class BookingMapper {
     public static OutputBookingDto toOutput(Booking booking) {
         OutputBookingDto outputBookingDto = new OutputBookingDto();
@@ -14,7 +18,7 @@ public class BookingMapper {
         outputBookingDto.setEnd(booking.getEnd());
         outputBookingDto.setItem(ItemMapper.itemToItemShortDto(booking.getItem()));
         outputBookingDto.setBooker(UserMapper.userToUserShort(booking.getBooker()));
-        outputBookingDto.setStatus(booking.getStatus());
+        outputBookingDto.setStatus(booking.getStatus().getName());
         return outputBookingDto;
     }
 
@@ -27,18 +31,40 @@ public class BookingMapper {
         out.setStart(booking.getStart());
         out.setEnd(booking.getEnd());
         out.setBookerId(booking.getBooker().getId());
-        out.setStatus(booking.getStatus());
+        out.setStatus(booking.getStatus().getName());
+        return out;
+    }
+
+    //строка нативного запроса бронирований вещи: ID, START_DATE, END_DATE, ITEM_ID, BOOKER_ID, STATUS_CODE
+    public static BookingDtoForUserItemsOutput rowToBookDtoForItem(Object[] row) {
+        BookingDtoForUserItemsOutput out = new BookingDtoForUserItemsOutput();
+        out.setId(((Number) row[0]).intValue());
+        out.setStart(toLocalDateTime(row[1]));
+        out.setEnd(toLocalDateTime(row[2]));
+        out.setBookerId(((Number) row[4]).intValue());
+        out.setStatus(BookingStatus.fromCode(((Number) row[5]).shortValue()).getName());
         return out;
     }
 
+    public static Integer rowToItemId(Object[] row) {
+        return ((Number) row[3]).intValue();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
     public static Booking dtoToBooking(InputBookingDto inputBookingDto, Item item, User booker) {
         Booking booking = new Booking();
         booking.setId(inputBookingDto.getId());
         booking.setStart(inputBookingDto.getStart());
         booking.setEnd(inputBookingDto.getEnd());
-        booking.setStatus(inputBookingDto.getStatus());
         booking.setBooker(booker);
         booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
         return booking;
     }
 
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.booking.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class OutputBookingDto {
         private Integer id;
         private LocalDateTime start;
@@ -14,4 +17,18 @@ public class OutputBookingDto {
         private ItemShortDto item;
         private UserShortDto booker;
         private String status;
+
+        //для выборки проекцией прямо из JPQL (SELECT new ...) без загрузки сущностей
+        public OutputBookingDto(Integer id, LocalDateTime start, LocalDateTime end,
+                                Integer itemId, String itemName, Integer bookerId, BookingStatus status) {
+                this.id = id;
+                this.start = start;
+                this.end = end;
+                this.item = new ItemShortDto();
+                this.item.setId(itemId);
+                this.item.setName(itemName);
+                this.booker = new UserShortDto();
+                this.booker.setId(bookerId);
+                this.status = status.getName();
+        }
 }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "BOOKING_EVENTS")
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_events_id_seq")
+    @SequenceGenerator(name = "booking_events_id_seq", sequenceName = "BOOKING_EVENTS_ID_SEQ", allocationSize = 50)
+    @Column(name = "ID")
+    private Long id;
+    @Column(name = "BOOKING_ID", nullable = false)
+    private Integer bookingId;
+    @Column(name = "ITEM_ID", nullable = false)
+    private Integer itemId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TYPE", nullable = false, length = 20)
+    private BookingEventType type;
+    @Column(name = "CREATED", nullable = false)
+    private LocalDateTime created;
+    //подтверждение еще не применено к ITEM_BOOKING_SUMMARY (ItemBookingSummaryProjector)
+    @Column(name = "SUMMARY_PENDING", nullable = false)
+    private boolean summaryPending;
+
+    public BookingEvent(Booking booking, BookingEventType type, LocalDateTime created) {
+        this.bookingId = booking.getId();
+        this.itemId = booking.getItem().getId();
+        this.type = type;
+        this.created = created;
+        this.summaryPending = type == BookingEventType.APPROVED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BookingEvent event = (BookingEvent) o;
+
+        return id != null && id.equals(event.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "BookingEvent{" +
+                "id=" + id +
+                ", bookingId=" + bookingId +
+                ", type=" + type +
+                ", created=" + created +
+                '}';
+    }
+}
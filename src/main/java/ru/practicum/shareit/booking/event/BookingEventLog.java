@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Дописывает события бронирований в BOOKING_EVENTS в той же транзакции, что и смену статуса.
+ * Вставки уходят при сбросе сессии пачками (id из последовательности, hibernate.jdbc.batch_size);
+ * проекции (ITEM_BOOKING_SUMMARY) обновляются после коммита, а не в запросе.
+ */
+@Service
+@Transactional
+public class BookingEventLog {
+    private final BookingEventRepository eventRepository;
+    private final ApplicationEventPublisher publisher;
+    private final Clock clock;
+
+    public BookingEventLog(BookingEventRepository eventRepository, ApplicationEventPublisher publisher,
+                           Clock clock) {
+        this.eventRepository = eventRepository;
+        this.publisher = publisher;
+        this.clock = clock;
+    }
+
+    public void append(Booking booking, BookingEventType type) {
+        append(List.of(booking), type);
+    }
+
+    public void append(List<Booking> bookings, BookingEventType type) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<BookingEvent> events = eventRepository.saveAll(bookings.stream()
+                .map(booking -> new BookingEvent(booking, type, now))
+                .collect(Collectors.toList()));
+        publisher.publishEvent(new BookingEventsAppended(type, events));
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    //подтверждения, еще не примененные к ITEM_BOOKING_SUMMARY - индекс (SUMMARY_PENDING, ID)
+    @Query("SELECT E FROM BookingEvent E WHERE E.summaryPending = true ORDER BY E.id")
+    List<BookingEvent> getSummaryPending(Pageable pageable);
+
+    //событие неизменяемо для Hibernate, флаг очереди сбрасывается напрямую.
+    //Флаг мог уже сбросить параллельный проход - это не ошибка
+    @Modifying
+    @Query(value = "UPDATE BOOKING_EVENTS SET SUMMARY_PENDING = FALSE WHERE ID IN (:eventIds)", nativeQuery = true)
+    int markSummaryApplied(@Param("eventIds") List<Long> eventIds);
+}
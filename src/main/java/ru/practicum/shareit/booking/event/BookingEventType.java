@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+/**
+ * События жизненного цикла бронирования и переходы между статусами:
+ * создание - в WAITING, решение владельца - только из WAITING.
+ */
+public enum BookingEventType {
+    CREATED(BookingStatus.WAITING),
+    APPROVED(BookingStatus.APPROVED),
+    REJECTED(BookingStatus.REJECTED);
+
+    private final BookingStatus status;
+
+    BookingEventType(BookingStatus status) {
+        this.status = status;
+    }
+
+    public BookingStatus next(BookingStatus currentStatus) {
+        boolean allowed = this == CREATED ? currentStatus == null : currentStatus == BookingStatus.WAITING;
+        if (!allowed) {
+            throw new ValidationException("Статус можно поменять только для бронирований, ожидаюйщих подтверждения!");
+        }
+        return status;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+//публикуется в транзакции, записавшей события (id уже выданы); слушатели проекций получают его
+//и в этой транзакции (@EventListener), и после коммита (@TransactionalEventListener)
+@Getter
+@AllArgsConstructor
+public class BookingEventsAppended {
+    private final BookingEventType type;
+    private final List<BookingEvent> events;
+}
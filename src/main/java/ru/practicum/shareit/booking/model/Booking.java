@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import ru.practicum.shareit.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -27,8 +28,12 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "BOOKER_ID")
     User booker;
-    @Column(name = "STATUS", nullable = false)
-    String status;
+    //копия владельца вещи для списка бронирований владельца (V9)
+    @Column(name = "OWNER_ID", nullable = false)
+    Integer ownerId;
+    @Convert(converter = BookingStatusConverter.class)
+    @Column(name = "STATUS_CODE", nullable = false)
+    BookingStatus status;
 
     @Override
     public boolean equals(Object o) {
@@ -51,7 +56,7 @@ public class Booking {
                 "id=" + id +
                 ", start=" + start +
                 ", end=" + end +
-                ", status='" + status + '\'' +
+                ", status=" + status +
                 '}';
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.BookingStatus;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+//статус хранится в SMALLINT: строки и индексы BOOKINGS короче, сравнение - по числу, без справочника
+@Converter
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, Short> {
+    @Override
+    public Short convertToDatabaseColumn(BookingStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public BookingStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : BookingStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repositary;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.state.BookingPerspective;
+import ru.practicum.shareit.booking.state.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingListRepository {
+    //keyset по (start, id): страница N читается по индексу так же, как первая.
+    //Списки читаются сразу в OutputBookingDto: из вещи нужно только название, сущности в контекст не попадают.
+    String SELECT_OUTPUT = "SELECT new ru.practicum.shareit.booking.dto.OutputBookingDto(" +
+            "B.id, B.start, B.end, I.id, I.name, B.booker.id, B.status) FROM Booking B JOIN B.item I ";
+    String AFTER_CURSOR = " (B.start < :cursorStart OR (B.start = :cursorStart AND B.id < :cursorId)) ";
+    String ORDER_BY_START = " ORDER BY B.start DESC, B.id DESC";
+
+    List<OutputBookingDto> findBookings(BookingPerspective perspective, BookingState state, Integer userId,
+                                        LocalDateTime now, BookingCursor after, Pageable pageable);
+}
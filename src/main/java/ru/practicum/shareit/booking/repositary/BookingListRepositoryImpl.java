@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.repositary;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.state.BookingPerspective;
+import ru.practicum.shareit.booking.state.BookingState;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+//запрос списка собирается из условия стороны и условия состояния; строки считаются один раз на пару
+public class BookingListRepositoryImpl implements BookingListRepository {
+    private final Map<BookingPerspective, Map<BookingState, String>> queries = new EnumMap<>(BookingPerspective.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BookingListRepositoryImpl() {
+        for (BookingPerspective perspective : BookingPerspective.values()) {
+            Map<BookingState, String> byState = new EnumMap<>(BookingState.class);
+            for (BookingState state : BookingState.values()) {
+                byState.put(state, query(perspective, state));
+            }
+            queries.put(perspective, byState);
+        }
+    }
+
+    @Override
+    public List<OutputBookingDto> findBookings(BookingPerspective perspective, BookingState state, Integer userId,
+                                               LocalDateTime now, BookingCursor after, Pageable pageable) {
+        TypedQuery<OutputBookingDto> query = entityManager.createQuery(queries.get(perspective).get(state),
+                        OutputBookingDto.class)
+                .setParameter("userId", userId)
+                .setParameter("cursorStart", after.getStart())
+                .setParameter("cursorId", after.getId());
+        state.bind(query, now);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    private static String query(BookingPerspective perspective, BookingState state) {
+        String stateCondition = state.getCondition().isEmpty() ? "" : " AND " + state.getCondition();
+        return SELECT_OUTPUT + "WHERE " + perspective.getCondition() + stateCondition + " AND" +
+                AFTER_CURSOR + ORDER_BY_START;
+    }
+}
@@ -1,52 +1,67 @@
 package ru.practicum.shareit.booking.repositary;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepositary extends JpaRepository<Booking, Integer> {
+public interface BookingRepositary extends JpaRepository<Booking, Integer>, BookingListRepository {
+    @EntityGraph(attributePaths = {"item"})
     Optional<Booking> findBookingById(Integer bookingId);
 
-    List<Booking> findBookingByBookerOrderByStartDesc(User user);
-
-    List<Booking> findBookingByBookerAndStatusOrderByStartDesc(User user, String state);
-
-    List<Booking> findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(User user, LocalDateTime dateTime, LocalDateTime dateTime1);
-
-    List<Booking> findBookingByBookerAndEndBeforeOrderByStartDesc(User user, LocalDateTime dateTime);
-
-    List<Booking> findBookingByBookerAndStartAfterOrderByStartDesc(User user, LocalDateTime dateTime);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.status = ?2 order by B.start desc")
-    List<Booking> getBookingsForOwnerByStatus(Integer ownerId, String status);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 ORDER BY B.start DESC")
-    List<Booking> getAllBookingsForOwner(Integer ownerId);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.start < ?2 AND B.end > ?3 ORDER BY B.start DESC")
-    List<Booking> getCurrentBookingForOwner(Integer ownerId, LocalDateTime date1, LocalDateTime date2);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.end < ?2 ORDER BY B.start DESC")
-    List<Booking> getPastBookingForOwner(Integer ownerId, LocalDateTime date);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.start > ?2 ORDER BY B.start DESC")
-    List<Booking> getFutureBookingForOwner(Integer ownerId, LocalDateTime date);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.id = ?1 AND B.status = 'APPROVED' AND B.item.owner.id = ?2 " +
-            "ORDER BY B.end")
-    List<Booking> getBookingsByItemOwner(Integer itemId, Integer userId);
-
-    List<Booking> findAllByItemInAndStatusOrderByStart(List<Item> itemList, String status);
-
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.id = ?1 AND " +
-            " ((B.start > ?2 AND B.start < ?3) OR (B.end > ?2 AND B.end < ?3)) AND " +
-            "B.status <> 'REJECTED'")
-    List<Booking> getBookingWithSameDates(Integer itemId, LocalDateTime startDate, LocalDateTime endDate);
+    @EntityGraph(attributePaths = {"item"})
+    List<Booking> findAllByIdIn(List<Integer> bookingIds);
+
+    //последнее (ближайшее в прошлом) и следующее (ближайшее в будущем) подтвержденное бронирование
+    //для каждой вещи владельца - не больше двух строк на вещь за один запрос
+    @Query(nativeQuery = true, value = "SELECT ID, START_DATE, END_DATE, ITEM_ID, BOOKER_ID, STATUS_CODE FROM (" +
+            "SELECT B.ID, B.START_DATE, B.END_DATE, B.ITEM_ID, B.BOOKER_ID, B.STATUS_CODE, " +
+            "ROW_NUMBER() OVER (PARTITION BY B.ITEM_ID ORDER BY B.START_DATE DESC) AS RN " +
+            "FROM BOOKINGS B JOIN ITEMS I ON I.ID = B.ITEM_ID " +
+            "WHERE B.ITEM_ID IN (:itemIds) AND I.OWNER_ID = :ownerId AND B.STATUS_CODE = :approved " +
+            "AND B.START_DATE < :now) LAST_BOOKING WHERE RN = 1 " +
+            "UNION ALL " +
+            "SELECT ID, START_DATE, END_DATE, ITEM_ID, BOOKER_ID, STATUS_CODE FROM (" +
+            "SELECT B.ID, B.START_DATE, B.END_DATE, B.ITEM_ID, B.BOOKER_ID, B.STATUS_CODE, " +
+            "ROW_NUMBER() OVER (PARTITION BY B.ITEM_ID ORDER BY B.START_DATE) AS RN " +
+            "FROM BOOKINGS B JOIN ITEMS I ON I.ID = B.ITEM_ID " +
+            "WHERE B.ITEM_ID IN (:itemIds) AND I.OWNER_ID = :ownerId AND B.STATUS_CODE = :approved " +
+            "AND B.START_DATE > :now) NEXT_BOOKING WHERE RN = 1")
+    List<Object[]> getLastAndNextBookings(@Param("itemIds") List<Integer> itemIds,
+                                          @Param("ownerId") Integer ownerId,
+                                          @Param("approved") short approved,
+                                          @Param("now") LocalDateTime now);
+
+    //последнее и следующее подтвержденное бронирование одной вещи для сводки ITEM_BOOKING_SUMMARY.
+    //Условие на B.item.id, а не производный запрос по ItemId: тот соединяется с ITEMS и читает BOOKINGS целиком
+    @Query("SELECT B FROM Booking B WHERE B.item.id = :itemId AND B.status = :status AND B.start < :before " +
+            "ORDER BY B.start DESC")
+    List<Booking> getLastBookingByStatus(@Param("itemId") Integer itemId,
+                                         @Param("status") BookingStatus status,
+                                         @Param("before") LocalDateTime before,
+                                         Pageable pageable);
+
+    @Query("SELECT B FROM Booking B WHERE B.item.id = :itemId AND B.status = :status AND B.start > :after " +
+            "ORDER BY B.start")
+    List<Booking> getNextBookingByStatus(@Param("itemId") Integer itemId,
+                                         @Param("status") BookingStatus status,
+                                         @Param("after") LocalDateTime after,
+                                         Pageable pageable);
+
+    //действующее бронирование вещи, начавшееся последним до указанного момента - одна строка по индексу
+    //(ITEM_ID, START_DATE DESC). Бронирования нулевой длины пропускаются: они ни с чем не пересекаются
+    @Query("SELECT B FROM Booking B WHERE B.item.id = :itemId AND B.status <> :status " +
+            "AND B.start < :before AND B.end > B.start ORDER BY B.start DESC")
+    List<Booking> getLastBookingStartedBefore(@Param("itemId") Integer itemId,
+                                              @Param("status") BookingStatus status,
+                                              @Param("before") LocalDateTime before,
+                                              Pageable pageable);
 
 }
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.repositary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Objects;
+
+//страница, которая начинается с произвольной строки from, а не с номера страницы: PageRequest.of(from / size, size)
+//при from, не кратном size, молча сдвигал выборку к началу страницы
+public class OffsetPageRequest implements Pageable {
+    private final long offset;
+    private final int size;
+
+    public OffsetPageRequest(long offset, int size) {
+        if (offset < 0 || size <= 0) {
+            throw new IllegalArgumentException("Некорректные параметры страницы: offset = " + offset + ", size = " + size);
+        }
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(offset - size, 0), size) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        OffsetPageRequest that = (OffsetPageRequest) o;
+
+        return offset == that.offset && size == that.size;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, size);
+    }
+
+    @Override
+    public String toString() {
+        return "OffsetPageRequest{" +
+                "offset=" + offset +
+                ", size=" + size +
+                '}';
+    }
+}
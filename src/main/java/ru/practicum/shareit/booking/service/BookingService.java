@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
 
@@ -10,9 +12,11 @@ public interface BookingService {
 
     OutputBookingDto updateBooking(Integer userId, Integer bookingId, Boolean isApprove);
 
+    List<BookingApprovalResultDto> updateBookings(Integer userId, List<BookingApprovalDto> approvals);
+
     OutputBookingDto getBookingById(Integer bookingId, Integer userId);
 
-    List<OutputBookingDto> getUsersBooking(Integer userId, String state);
+    List<OutputBookingDto> getUsersBooking(Integer userId, String state, Integer from, Integer size, String cursor);
 
-    List<OutputBookingDto> getBookingsForOwner(Integer userId, String state);
+    List<OutputBookingDto> getBookingsForOwner(Integer userId, String state, Integer from, Integer size, String cursor);
 }
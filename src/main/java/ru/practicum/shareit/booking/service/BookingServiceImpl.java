@@ -1,14 +1,26 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.event.BookingEventLog;
+import ru.practicum.shareit.booking.event.BookingEventType;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repositary.BookingRepositary;
+import ru.practicum.shareit.booking.repositary.OffsetPageRequest;
+import ru.practicum.shareit.booking.state.BookingPerspective;
+import ru.practicum.shareit.booking.state.BookingState;
 import ru.practicum.shareit.exceptions.ResourceNotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
@@ -16,9 +28,13 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,38 +44,91 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepositary bookingRepositary;
     private final UserService userService;
     private final ItemService itemService;
+    private final MeterRegistry meterRegistry;
+    private final BookingEventLog bookingEvents;
+    private final Clock clock;
 
     public BookingServiceImpl(BookingRepositary bookingRepositary,
                               UserService userService,
-                              ItemService itemService) {
+                              ItemService itemService,
+                              MeterRegistry meterRegistry,
+                              BookingEventLog bookingEvents,
+                              Clock clock) {
         this.bookingRepositary = bookingRepositary;
         this.userService = userService;
         this.itemService = itemService;
+        this.meterRegistry = meterRegistry;
+        this.bookingEvents = bookingEvents;
+        this.clock = clock;
     }
 
     @Override
     public OutputBookingDto createBooking(InputBookingDto inputBookingDto) {
-        Item item = itemService.getItemById(inputBookingDto.getItemId());
+        //проверка пересечений и сохранение выполняются под блокировкой строки вещи
+        Item item = itemService.lockItemById(inputBookingDto.getItemId());
         User booker = userService.getUserById(inputBookingDto.getBookerId());
         Booking booking = BookingMapper.dtoToBooking(inputBookingDto, item, booker);
         checkBooking(booking);
-        booking.setStatus(BookingStatus.WAITING.getName());
-        return BookingMapper.toOutput(bookingRepositary.save(booking));
+        booking.setStatus(BookingEventType.CREATED.next(null));
+        Booking saved = bookingRepositary.save(booking);
+        bookingEvents.append(saved, BookingEventType.CREATED);
+        return BookingMapper.toOutput(saved);
     }
 
     @Override
     public OutputBookingDto updateBooking(Integer userId, Integer bookingId, Boolean isApprove) {
         Booking booking = getBooking(bookingId);
         checkApproving(booking, userId);
-        if (isApprove) {
-            booking.setStatus(BookingStatus.APPROVED.getName());
-        } else {
-            booking.setStatus(BookingStatus.REJECTED.getName());
-        }
+        BookingEventType type = isApprove ? BookingEventType.APPROVED : BookingEventType.REJECTED;
+        booking.setStatus(type.next(booking.getStatus()));
+        bookingEvents.append(booking, type);
         return BookingMapper.toOutput(bookingRepositary.save(booking));
     }
 
     @Override
+    public List<BookingApprovalResultDto> updateBookings(Integer userId, List<BookingApprovalDto> approvals) {
+        //пустой IN () Postgres не принимает
+        if (approvals.isEmpty()) {
+            return new ArrayList<>();
+        }
+        //все бронирования пакета читаем одним запросом; изменения статусов уходят при сбросе сессии
+        //и вставки событий пачками JDBC (hibernate.jdbc.batch_size), а не отдельным save на каждое
+        List<Integer> bookingIds = approvals.stream().map(BookingApprovalDto::getBookingId).collect(Collectors.toList());
+        Map<Integer, Booking> bookings = bookingRepositary.findAllByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingApprovalResultDto> results = new ArrayList<>();
+        List<Booking> approved = new ArrayList<>();
+        List<Booking> rejected = new ArrayList<>();
+        for (BookingApprovalDto approval : approvals) {
+            Booking booking = bookings.get(approval.getBookingId());
+            try {
+                if (approval.getApproved() == null) {
+                    throw new ValidationException("Не указано решение по бронированию");
+                }
+                if (booking == null) {
+                    throw new ResourceNotFoundException("Не нашел бронирование  с Id = " + approval.getBookingId());
+                }
+                checkApproving(booking, userId);
+                BookingEventType type = approval.getApproved() ? BookingEventType.APPROVED : BookingEventType.REJECTED;
+                booking.setStatus(type.next(booking.getStatus()));
+                if (type == BookingEventType.APPROVED) {
+                    approved.add(booking);
+                } else {
+                    rejected.add(booking);
+                }
+            } catch (ResourceNotFoundException | ValidationException e) {
+                results.add(new BookingApprovalResultDto(approval.getBookingId(), null, e.getMessage()));
+                continue;
+            }
+            results.add(new BookingApprovalResultDto(booking.getId(), booking.getStatus().getName(), null));
+        }
+        bookingEvents.append(approved, BookingEventType.APPROVED);
+        bookingEvents.append(rejected, BookingEventType.REJECTED);
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public OutputBookingDto getBookingById(Integer bookingId, Integer userId) {
         Booking booking = getBooking(bookingId);
         if (!userId.equals(booking.getBooker().getId()) &&
@@ -72,67 +141,45 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<OutputBookingDto> getUsersBooking(Integer userId, String state) {
-        User user = userService.getUserById(userId);
-        List<Booking> bookList;
-        switch (state) {
-            case "ALL":
-                bookList = bookingRepositary.findBookingByBookerOrderByStartDesc(user);
-                break;
-            case "WAITING":
-            case "REJECTED":
-                bookList = bookingRepositary.findBookingByBookerAndStatusOrderByStartDesc(user, state);
-                break;
-            case "CURRENT":
-                LocalDateTime dateTime = LocalDateTime.now();
-                bookList = bookingRepositary.findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(user, dateTime, dateTime);
-                break;
-            case "PAST":
-                LocalDateTime dateTime1 = LocalDateTime.now();
-                bookList = bookingRepositary.findBookingByBookerAndEndBeforeOrderByStartDesc(user, dateTime1);
-                break;
-            case "FUTURE":
-                LocalDateTime dateTime2 = LocalDateTime.now();
-                bookList = bookingRepositary.findBookingByBookerAndStartAfterOrderByStartDesc(user, dateTime2);
-                break;
-            default:
-                String msg = "Unknown state: UNSUPPORTED_STATUS";
-                log.info(msg);
-                throw new ValidationException(msg);
-        }
-        return bookList.stream().map(BookingMapper::toOutput).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<OutputBookingDto> getUsersBooking(Integer userId, String state, Integer from, Integer size, String cursor) {
+        return getBookings(BookingPerspective.BOOKER, userId, state, from, size, cursor);
     }
 
     @Override
-    public List<OutputBookingDto> getBookingsForOwner(Integer userId, String state) {
-        User user = userService.getUserById(userId);
-        List<Booking> bookList;
-        switch (state) {
-            case "ALL":
-                bookList = bookingRepositary.getAllBookingsForOwner(userId);
-                break;
-            case "WAITING":
-            case "REJECTED":
-                bookList = bookingRepositary.getBookingsForOwnerByStatus(userId, state);
-                break;
-            case "CURRENT":
-                LocalDateTime dateTime = LocalDateTime.now();
-                bookList = bookingRepositary.getCurrentBookingForOwner(userId, dateTime, dateTime);
-                break;
-            case "PAST":
-                LocalDateTime dateTime1 = LocalDateTime.now();
-                bookList = bookingRepositary.getPastBookingForOwner(userId, dateTime1);
-                break;
-            case "FUTURE":
-                LocalDateTime dateTime2 = LocalDateTime.now();
-                bookList = bookingRepositary.getFutureBookingForOwner(userId, dateTime2);
-                break;
-            default:
-                String msg = "Unknown state: UNSUPPORTED_STATUS";
-                log.info(msg);
-                throw new ValidationException(msg);
+    @Transactional(readOnly = true)
+    public List<OutputBookingDto> getBookingsForOwner(Integer userId, String state, Integer from, Integer size, String cursor) {
+        return getBookings(BookingPerspective.OWNER, userId, state, from, size, cursor);
+    }
+
+    private List<OutputBookingDto> getBookings(BookingPerspective perspective, Integer userId, String stateName,
+                                               Integer from, Integer size, String cursor) {
+        userService.getUserById(userId);
+        BookingState state = BookingState.parse(stateName);
+        Pageable pageable = getPageable(from, size, cursor);
+        BookingCursor after = BookingCursor.decode(cursor, perspective, state);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<OutputBookingDto> outList = bookingRepositary.findBookings(perspective, state, userId,
+                LocalDateTime.now(clock), after, pageable);
+        sample.stop(listTimer(perspective, state));
+        return outList;
+    }
+
+    private Timer listTimer(BookingPerspective perspective, BookingState state) {
+        return meterRegistry.timer("shareit.bookings.list", "perspective", perspective.getTag(), "state", state.name());
+    }
+
+    private Pageable getPageable(Integer from, Integer size, String cursor) {
+        if (from < 0 || size <= 0) {
+            String msg = "Некорректные параметры страницы: from = " + from + ", size = " + size;
+            log.warn(msg);
+            throw new ValidationException(msg);
+        }
+        //с курсором смещение не нужно - выборка и так начинается сразу после него
+        if (!BookingCursor.isEmpty(cursor)) {
+            return PageRequest.of(0, size);
         }
-        return bookList.stream().map(BookingMapper::toOutput).collect(Collectors.toList());
+        return new OffsetPageRequest(from, size);
     }
 
     private void checkBooking(Booking booking) {
@@ -141,7 +188,7 @@ public class BookingServiceImpl implements BookingService {
         }
         if (booking.getStart().isAfter(booking.getEnd())) {
             throw new ValidationException("Дата начала позже даты окончания");
-        } else if (booking.getStart().isBefore(LocalDateTime.now())) {
+        } else if (booking.getStart().isBefore(LocalDateTime.now(clock))) {
             throw new ValidationException("Дата начала не может быть в прошлом");
         }
         if (Objects.equals(booking.getBooker().getId(), booking.getItem().getOwner().getId())) {
@@ -151,10 +198,16 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void checkDates(Booking booking) {
-        List<Booking> bookingList = bookingRepositary.getBookingWithSameDates(booking.getItem().getId(), booking.getStart(), booking.getEnd());
-        if (bookingList.size() != 0) {
-            throw new ResourceNotFoundException("Есть букирование, которое пересекается по времени! " + bookingList.get(0).getId());
-        }
+        //Действующие бронирования вещи не пересекаются (старые пересечения отклонила миграция V8, новые не пропускает
+        //эта проверка под блокировкой строки вещи), поэтому, упорядоченные по началу, они упорядочены и по концу.
+        //Значит, достаточно проверить одно - то, что началось последним до окончания нового.
+        bookingRepositary.getLastBookingStartedBefore(booking.getItem().getId(), BookingStatus.REJECTED,
+                        booking.getEnd(), PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .filter(other -> other.getEnd().isAfter(booking.getStart()))
+                .ifPresent(other -> {
+                    throw new ResourceNotFoundException("Есть букирование, которое пересекается по времени! " + other.getId());
+                });
     }
 
     private Booking getBooking(Integer bookingId) {
@@ -173,11 +226,6 @@ public class BookingServiceImpl implements BookingService {
             log.warn(msg);
             throw new ResourceNotFoundException(msg);
         }
-        if (!booking.getStatus().equals(BookingStatus.WAITING.getName())) {
-            String msg = "Статус можно поменять только для бронирований, ожидаюйщих подтверждения!";
-            log.warn(msg);
-            throw new ValidationException(msg);
-        }
     }
 
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.state;
+
+//чьи бронирования выбираются: пользователь - арендатор или владелец вещи.
+//Обе стороны фильтруются по колонке BOOKINGS под свои индексы (BOOKER_ID, ...) и (OWNER_ID, ...)
+public enum BookingPerspective {
+    BOOKER("booker", "B.booker.id = :userId"),
+    OWNER("owner", "B.ownerId = :userId");
+
+    private final String tag;
+    private final String condition;
+
+    BookingPerspective(String tag, String condition) {
+        this.tag = tag;
+        this.condition = condition;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.state;
+
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+
+/**
+ * Состояние из параметра state списков бронирований: условие JPQL на бронирование B и его параметры.
+ * Одно условие на состояние для обеих сторон (BookingPerspective) - новое состояние или
+ * другой индекс под выборку добавляются только здесь.
+ */
+public enum BookingState {
+    ALL(""),
+    WAITING("B.status = :status") {
+        @Override
+        public void bind(TypedQuery<?> query, LocalDateTime now) {
+            query.setParameter("status", BookingStatus.WAITING);
+        }
+    },
+    REJECTED("B.status = :status") {
+        @Override
+        public void bind(TypedQuery<?> query, LocalDateTime now) {
+            query.setParameter("status", BookingStatus.REJECTED);
+        }
+    },
+    CURRENT("B.start < :now AND B.end > :now") {
+        @Override
+        public void bind(TypedQuery<?> query, LocalDateTime now) {
+            query.setParameter("now", now);
+        }
+    },
+    PAST("B.end < :now") {
+        @Override
+        public void bind(TypedQuery<?> query, LocalDateTime now) {
+            query.setParameter("now", now);
+        }
+    },
+    FUTURE("B.start > :now") {
+        @Override
+        public void bind(TypedQuery<?> query, LocalDateTime now) {
+            query.setParameter("now", now);
+        }
+    };
+
+    private final String condition;
+
+    BookingState(String condition) {
+        this.condition = condition;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void bind(TypedQuery<?> query, LocalDateTime now) {
+    }
+
+    public static BookingState parse(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equals(state)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+    }
+}
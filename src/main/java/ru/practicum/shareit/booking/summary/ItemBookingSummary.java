@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "ITEM_BOOKING_SUMMARY")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "ITEM_ID")
+    private Integer itemId;
+    @Column(name = "LAST_BOOKING_ID")
+    private Integer lastBookingId;
+    @Column(name = "LAST_START")
+    private LocalDateTime lastStart;
+    @Column(name = "NEXT_BOOKING_ID")
+    private Integer nextBookingId;
+    @Column(name = "NEXT_START")
+    private LocalDateTime nextStart;
+
+    public ItemBookingSummary(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ItemBookingSummary summary = (ItemBookingSummary) o;
+
+        return itemId.equals(summary.itemId);
+    }
+
+    @Override
+    public int hashCode() {
+        return itemId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ItemBookingSummary{" +
+                "itemId=" + itemId +
+                ", lastBookingId=" + lastBookingId +
+                ", nextBookingId=" + nextBookingId +
+                ", nextStart=" + nextStart +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventRepository;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingEventsAppended;
+import ru.practicum.shareit.booking.repositary.BookingRepositary;
+import ru.practicum.shareit.config.BookingSummaryExecutorConfig;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Строит ITEM_BOOKING_SUMMARY из журнала BOOKING_EVENTS вне запроса, подтвердившего бронирование.
+ * Очередь - сам журнал: подтверждение вставляется с SUMMARY_PENDING, флаг сбрасывает транзакция, применившая
+ * его к сводке. Поэтому событие, закоммиченное позже событий с большими id, не теряется: пока оно
+ * не закоммичено, его просто не видно, а потом его подберет следующий проход.
+ * После коммита подтверждения проход запускается в отдельном потоке; плановый проход подбирает то,
+ * что не успели (ошибка, перезапуск). Применение подтверждения к сводке идемпотентно, поэтому одно
+ * событие может прийти обоими путями.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaryProjector {
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingEventRepository eventRepository;
+    private final BookingRepositary bookingRepositary;
+    private final ItemBookingSummaryService summaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor executor;
+
+    public ItemBookingSummaryProjector(BookingEventRepository eventRepository,
+                                       BookingRepositary bookingRepositary,
+                                       ItemBookingSummaryService summaryService,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier(BookingSummaryExecutorConfig.BOOKING_SUMMARY_EXECUTOR)
+                                       TaskExecutor executor) {
+        this.eventRepository = eventRepository;
+        this.bookingRepositary = bookingRepositary;
+        this.summaryService = summaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener
+    public void onEventsAppended(BookingEventsAppended appended) {
+        if (appended.getType() != BookingEventType.APPROVED) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                catchUp();
+            } catch (RuntimeException e) {
+                log.warn("Сводка бронирований не обновлена, догонит плановый проход", e);
+            }
+        });
+    }
+
+    //то, что не успели применить до остановки, остается с флагом и применится после перезапуска
+    @Scheduled(fixedDelayString = "${shareit.booking-events.catch-up-interval-ms:5000}")
+    public void catchUp() {
+        Integer applied;
+        do {
+            applied = transactionTemplate.execute(status -> applyBatch());
+        } while (applied != null && applied == BATCH_SIZE);
+    }
+
+    private int applyBatch() {
+        List<BookingEvent> pending = eventRepository.getSummaryPending(PageRequest.of(0, BATCH_SIZE));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Integer> bookingIds = pending.stream()
+                .map(BookingEvent::getBookingId)
+                .distinct()
+                .collect(Collectors.toList());
+        summaryService.bookingsApproved(bookingRepositary.findAllByIdIn(bookingIds));
+        eventRepository.markSummaryApplied(pending.stream()
+                .map(BookingEvent::getId)
+                .collect(Collectors.toList()));
+        return pending.size();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Integer> {
+    //строки в том же виде, что и BookingRepositary.getLastAndNextBookings: ID, START_DATE, END_DATE, ITEM_ID, BOOKER_ID, STATUS_CODE.
+    //Сводки, у которых следующее бронирование уже началось, не отдаем - их пересчитывает rollForward
+    String SUMMARY_BOOKING = "SELECT B.ID, B.START_DATE, B.END_DATE, S.ITEM_ID, B.BOOKER_ID, B.STATUS_CODE " +
+            "FROM ITEM_BOOKING_SUMMARY S JOIN ITEMS I ON I.ID = S.ITEM_ID JOIN BOOKINGS B ON B.ID = S.";
+    String FRESH_SUMMARY = " WHERE S.ITEM_ID IN (:itemIds) AND I.OWNER_ID = :ownerId " +
+            "AND (S.NEXT_START IS NULL OR S.NEXT_START > :now)";
+
+    @Query(nativeQuery = true, value = SUMMARY_BOOKING + "LAST_BOOKING_ID" + FRESH_SUMMARY +
+            " UNION ALL " + SUMMARY_BOOKING + "NEXT_BOOKING_ID" + FRESH_SUMMARY)
+    List<Object[]> getSummaryBookings(@Param("itemIds") List<Integer> itemIds,
+                                      @Param("ownerId") Integer ownerId,
+                                      @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT S.itemId FROM ItemBookingSummary S WHERE S.itemId IN :itemIds AND S.nextStart <= :now")
+    List<Integer> getStaleItemIds(@Param("itemIds") List<Integer> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT S.itemId FROM ItemBookingSummary S WHERE S.nextStart <= :now ORDER BY S.nextStart")
+    List<Integer> getItemIdsToRoll(@Param("now") LocalDateTime now, Pageable pageable);
+
+}
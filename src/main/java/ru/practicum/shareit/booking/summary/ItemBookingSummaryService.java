@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositary.BookingRepositary;
+import ru.practicum.shareit.item.repositary.ItemRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ведет ITEM_BOOKING_SUMMARY: последнее и следующее подтвержденное бронирование каждой вещи.
+ * Сводка меняется под блокировкой строки вещи - так же, как создание бронирования.
+ * Подтверждения применяются из журнала событий (ItemBookingSummaryProjector), а не в запросе владельца.
+ */
+@Slf4j
+@Service
+@Transactional
+public class ItemBookingSummaryService {
+    private static final int ROLL_CHUNK_SIZE = 500;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepositary bookingRepositary;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepositary bookingRepositary,
+                                     ItemRepository itemRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     Clock clock) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepositary = bookingRepositary;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    public void bookingsApproved(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        //вещи блокируем по возрастанию id, чтобы пакеты с общими вещами не ждали друг друга по кругу
+        List<Integer> itemIds = bookings.stream().map(booking -> booking.getItem().getId())
+                .distinct().sorted().collect(Collectors.toList());
+        itemIds.forEach(itemRepository::lockItemById);
+        Map<Integer, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        for (Integer itemId : itemIds) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(itemId, ItemBookingSummary::new);
+            if (summary.getNextStart() != null && !summary.getNextStart().isAfter(now)) {
+                //следующее уже началось, а плановый пересчет до вещи еще не дошел
+                fill(summary, now);
+            }
+        }
+        for (Booking booking : bookings) {
+            ItemBookingSummary summary = summaries.get(booking.getItem().getId());
+            if (booking.getStart().isBefore(now)) {
+                if (summary.getLastStart() == null || booking.getStart().isAfter(summary.getLastStart())) {
+                    summary.setLastBookingId(booking.getId());
+                    summary.setLastStart(booking.getStart());
+                }
+            } else if (summary.getNextStart() == null || booking.getStart().isBefore(summary.getNextStart())) {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextStart(booking.getStart());
+            }
+        }
+        summaryRepository.saveAll(summaries.values());
+    }
+
+    public void recompute(Integer itemId) {
+        itemRepository.lockItemById(itemId);
+        ItemBookingSummary summary = summaryRepository.findById(itemId).orElseGet(() -> new ItemBookingSummary(itemId));
+        summaryRepository.save(fill(summary, LocalDateTime.now(clock)));
+    }
+
+    //следующее бронирование, которое уже началось, становится последним.
+    //Каждая вещь пересчитывается в своей транзакции: блокировка строки вещи держится только на время ее пересчета,
+    //а не всего прохода, и не задерживает бронирования остальных вещей
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int rolled = 0;
+        List<Integer> itemIds;
+        do {
+            itemIds = summaryRepository.getItemIdsToRoll(now, PageRequest.of(0, ROLL_CHUNK_SIZE));
+            for (Integer itemId : itemIds) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    itemRepository.lockItemById(itemId);
+                    summaryRepository.findById(itemId).ifPresent(summary -> summaryRepository.save(fill(summary, now)));
+                });
+            }
+            rolled += itemIds.size();
+        } while (itemIds.size() == ROLL_CHUNK_SIZE);
+        if (rolled > 0) {
+            log.info("Сводка бронирований пересчитана для вещей: {}", rolled);
+        }
+    }
+
+    private ItemBookingSummary fill(ItemBookingSummary summary, LocalDateTime now) {
+        BookingStatus approved = BookingStatus.APPROVED;
+        summary.setLastBookingId(null);
+        summary.setLastStart(null);
+        summary.setNextBookingId(null);
+        summary.setNextStart(null);
+        bookingRepositary.getLastBookingByStatus(summary.getItemId(), approved, now, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .ifPresent(last -> {
+                    summary.setLastBookingId(last.getId());
+                    summary.setLastStart(last.getStart());
+                });
+        bookingRepositary.getNextBookingByStatus(summary.getItemId(), approved, now, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .ifPresent(next -> {
+                    summary.setNextBookingId(next.getId());
+                    summary.setNextStart(next.getStart());
+                });
+        return summary;
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Отклоняет действующие (WAITING, APPROVED) бронирования, пересекающиеся с более ранними бронированиями той же вещи.
+ * Прежняя проверка пропускала бронирования, целиком накрывающие другие. После чистки действующие бронирования
+ * вещи не пересекаются, и проверка при создании (BookingServiceImpl.checkDates) читает одну строку по индексу.
+ * Из пересекающихся остается начавшееся раньше (при равном начале - с меньшим id).
+ */
+public final class BookingOverlaps {
+    private static final int REJECTED = 3;
+    private static final int APPROVED = 2;
+
+    private BookingOverlaps() {
+    }
+
+    public static int rejectOverlapping(Connection connection) throws SQLException {
+        int rejected = 0;
+        try (Statement select = connection.createStatement();
+             PreparedStatement reject = connection.prepareStatement(
+                     "UPDATE BOOKINGS SET STATUS_CODE = " + REJECTED + " WHERE ID = ?")) {
+            //бронирования нулевой длины ни с чем не пересекаются и проверкой не учитываются
+            try (ResultSet resultSet = select.executeQuery("SELECT ID, ITEM_ID, START_DATE, END_DATE FROM BOOKINGS " +
+                    "WHERE STATUS_CODE <> " + REJECTED + " AND END_DATE > START_DATE " +
+                    "ORDER BY ITEM_ID, START_DATE, ID")) {
+                int itemId = -1;
+                Timestamp keptEnd = null;
+                while (resultSet.next()) {
+                    if (resultSet.getInt("ITEM_ID") != itemId) {
+                        itemId = resultSet.getInt("ITEM_ID");
+                        keptEnd = null;
+                    }
+                    Timestamp start = resultSet.getTimestamp("START_DATE");
+                    Timestamp end = resultSet.getTimestamp("END_DATE");
+                    if (keptEnd != null && start.before(keptEnd)) {
+                        reject.setInt(1, resultSet.getInt("ID"));
+                        reject.addBatch();
+                        rejected++;
+                    } else {
+                        keptEnd = end;
+                    }
+                }
+            }
+            if (rejected == 0) {
+                return 0;
+            }
+            reject.executeBatch();
+            //сводка могла ссылаться на отклоненное подтвержденное бронирование - строим ее для таких вещей заново
+            select.execute("DELETE FROM ITEM_BOOKING_SUMMARY " +
+                    "WHERE LAST_BOOKING_ID IN (SELECT ID FROM BOOKINGS WHERE STATUS_CODE = " + REJECTED + ") " +
+                    "OR NEXT_BOOKING_ID IN (SELECT ID FROM BOOKINGS WHERE STATUS_CODE = " + REJECTED + ")");
+            select.execute("INSERT INTO ITEM_BOOKING_SUMMARY (ITEM_ID, LAST_BOOKING_ID, LAST_START, NEXT_BOOKING_ID, NEXT_START) " +
+                    "SELECT I.ID, " +
+                    "(SELECT B.ID FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS_CODE = " + APPROVED + " " +
+                    "AND B.START_DATE < CURRENT_TIMESTAMP ORDER BY B.START_DATE DESC LIMIT 1), " +
+                    "(SELECT MAX(B.START_DATE) FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS_CODE = " + APPROVED + " " +
+                    "AND B.START_DATE < CURRENT_TIMESTAMP), " +
+                    "(SELECT B.ID FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS_CODE = " + APPROVED + " " +
+                    "AND B.START_DATE > CURRENT_TIMESTAMP ORDER BY B.START_DATE LIMIT 1), " +
+                    "(SELECT MIN(B.START_DATE) FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS_CODE = " + APPROVED + " " +
+                    "AND B.START_DATE > CURRENT_TIMESTAMP) " +
+                    "FROM ITEMS I " +
+                    "WHERE EXISTS (SELECT 1 FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS_CODE = " + APPROVED + ") " +
+                    "AND NOT EXISTS (SELECT 1 FROM ITEM_BOOKING_SUMMARY S WHERE S.ITEM_ID = I.ID)");
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Поток прохода по сводке бронирований после коммита подтверждения (ItemBookingSummaryProjector).
+ * Один поток и одно место в очереди: ждущий проход подберет все, что закоммичено до его старта,
+ * поэтому остальные запросы на проход отбрасываются. При остановке контекста начатый проход доделывается.
+ */
+@Slf4j
+@Configuration
+public class BookingSummaryExecutorConfig {
+    public static final String BOOKING_SUMMARY_EXECUTOR = "bookingSummaryExecutor";
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    @Bean(BOOKING_SUMMARY_EXECUTOR)
+    public ThreadPoolTaskExecutor bookingSummaryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("booking-summary-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.debug("Проход по сводке бронирований уже ждет в очереди, запрос отброшен"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(SHUTDOWN_TIMEOUT_SECONDS);
+        return executor;
+    }
+
+    //свой Executor отключает автоконфигурацию пула приложения (асинхронные ответы MVC, @Async) -
+    //объявляем его так же, как она
+    @Lazy
+    @Primary
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Сдвигает последовательности id пользователей и вещей за уже занятые id (строки, вставленные с явным ID:
+ * база, принятая Flyway за версию 0, заполнение данными в бенчмарках).
+ * Hibernate (оптимизатор pooled) считает значение последовательности верхней границей блока и выдает
+ * id с value - 49 по value, поэтому последовательность ставится на MAX(ID) + allocationSize.
+ */
+public final class IdSequences {
+    //allocationSize в @SequenceGenerator у User и Item и INCREMENT BY их последовательностей в V1
+    public static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> TABLES_BY_SEQUENCE = Map.of(
+            "USERS_ID_SEQ", "USERS",
+            "ITEMS_ID_SEQ", "ITEMS");
+
+    private IdSequences() {
+    }
+
+    public static void advancePastMaxId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> sequence : TABLES_BY_SEQUENCE.entrySet()) {
+                long maxId;
+                try (ResultSet resultSet = statement.executeQuery(
+                        "SELECT COALESCE(MAX(ID), 0) FROM " + sequence.getValue())) {
+                    resultSet.next();
+                    maxId = resultSet.getLong(1);
+                }
+                if (maxId > 0) {
+                    statement.execute("ALTER SEQUENCE " + sequence.getKey() + " RESTART WITH " + (maxId + ALLOCATION_SIZE));
+                }
+            }
+        }
+    }
+}
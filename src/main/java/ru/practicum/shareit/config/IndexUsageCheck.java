@@ -0,0 +1,147 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.event.BookingEventRepository;
+import ru.practicum.shareit.booking.repositary.BookingRepositary;
+import ru.practicum.shareit.booking.state.BookingPerspective;
+import ru.practicum.shareit.booking.state.BookingState;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repositary.CommentRepository;
+import ru.practicum.shareit.item.repositary.ItemRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * На H2 при старте проверяет через EXPLAIN, что горячие запросы репозиториев идут по индексам.
+ * Проверяется тот SQL, который строит Hibernate: методы репозиториев вызываются в откатываемой транзакции,
+ * их запросы перехватывает SqlStatementCapture. Если какой-то запрос читает таблицу целиком - приложение не стартует.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.db.index-check.enabled", havingValue = "true")
+public class IndexUsageCheck implements ApplicationRunner {
+    private static final String TABLE_SCAN = "tableScan";
+    private static final LocalDateTime NOW = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final List<Integer> ITEM_IDS = List.of(1, 2, 3);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepositary bookingRepositary;
+    private final BookingEventRepository eventRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+
+    public IndexUsageCheck(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           BookingRepositary bookingRepositary, BookingEventRepository eventRepository,
+                           ItemBookingSummaryRepository summaryRepository, ItemRepository itemRepository,
+                           CommentRepository commentRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookingRepositary = bookingRepositary;
+        this.eventRepository = eventRepository;
+        this.summaryRepository = summaryRepository;
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(database)) {
+            log.info("Проверка планов запросов выполняется только на H2, текущая база: {}", database);
+            return;
+        }
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+        for (Map.Entry<String, Runnable> query : hotQueries().entrySet()) {
+            List<String> statements = generatedSql(query.getValue());
+            if (statements.isEmpty()) {
+                failures.add(query.getKey() + ": запрос не дошел до базы");
+            }
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan == null || plan.contains(TABLE_SCAN)) {
+                    failures.add(query.getKey() + ": " + plan);
+                }
+                checked++;
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Запросы без индекса:\n" + String.join("\n", failures));
+        }
+        log.info("Проверено планов запросов: {}, все используют индексы", checked);
+    }
+
+    //только SELECT: блокировки и изменения, которые метод мог бы сделать, откатываются вместе с транзакцией
+    private List<String> generatedSql(Runnable repositoryCall) {
+        List<String> selects = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String sql : SqlStatementCapture.capture(repositoryCall)) {
+                if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    selects.add(sql);
+                }
+            }
+            status.setRollbackOnly();
+        });
+        return selects;
+    }
+
+    //параметры не задаются: H2 строит план по запросу с ? так же, как при выполнении
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                return plan.next() ? plan.getString(1) : null;
+            }
+        });
+    }
+
+    private Map<String, Runnable> hotQueries() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        for (BookingPerspective perspective : BookingPerspective.values()) {
+            for (BookingState state : BookingState.values()) {
+                queries.put("bookings of " + perspective.getTag() + " " + state, () ->
+                        bookingRepositary.findBookings(perspective, state, 1, NOW, BookingCursor.first(),
+                                PageRequest.of(0, 10)));
+            }
+        }
+        queries.put("last and next bookings of items", () ->
+                bookingRepositary.getLastAndNextBookings(ITEM_IDS, 1, BookingStatus.APPROVED.getCode(), NOW));
+        queries.put("booking summary of items", () -> summaryRepository.getSummaryBookings(ITEM_IDS, 1, NOW));
+        queries.put("booking summaries to roll forward", () ->
+                summaryRepository.getItemIdsToRoll(NOW, PageRequest.of(0, 500)));
+        queries.put("pending booking summary events", () -> eventRepository.getSummaryPending(PageRequest.of(0, 500)));
+        queries.put("last booking of item", () ->
+                bookingRepositary.getLastBookingByStatus(1, BookingStatus.APPROVED, NOW, PageRequest.of(0, 1)));
+        queries.put("next booking of item", () ->
+                bookingRepositary.getNextBookingByStatus(1, BookingStatus.APPROVED, NOW, PageRequest.of(0, 1)));
+        queries.put("booking overlap", () ->
+                bookingRepositary.getLastBookingStartedBefore(1, BookingStatus.REJECTED, NOW, PageRequest.of(0, 1)));
+        queries.put("completed booking before comment", () ->
+                itemRepository.getItemsWasCompleteBookingByUser(1, BookingStatus.APPROVED, NOW));
+        queries.put("items of owner", () -> itemRepository.findItemViewsByOwner(1));
+        queries.put("items changed since", () -> itemRepository.findChangedSince(NOW, PageRequest.of(0, 1000)));
+        queries.put("comments of items", () -> commentRepository.findCommentViewsByItemIds(ITEM_IDS));
+        return queries;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exceptions;
 
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -38,6 +40,34 @@ public class ErrorHandler {
         );
     }
 
+    //то же нарушение уникальности, но найденное без базы (хранилища профиля in-memory)
+    @ExceptionHandler
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public Map<String,String> handleConflict(ConflictException e) {
+        return Map.of(
+                "error", "Ошибка при выполнении запроса: " + ConflictException.class.getSimpleName(),
+                "errorMessage", e.getMessage()
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public Map<String,String> handleLockFailure(PessimisticLockingFailureException e) {
+        return Map.of(
+                "error", "Ошибка при выполнении запроса: " + PessimisticLockingFailureException.class.getSimpleName(),
+                "errorMessage", "Вещь сейчас бронирует другой пользователь, повторите запрос"
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public Map<String,String> handleOptimisticLockFailure(OptimisticLockingFailureException e) {
+        return Map.of(
+                "error", "Ошибка при выполнении запроса: " + OptimisticLockingFailureException.class.getSimpleName(),
+                "errorMessage", "Запись одновременно изменил другой запрос, повторите запрос"
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(value = HttpStatus.FORBIDDEN)
     public Map<String,String> handleRightsException(RightsException e) {
@@ -47,6 +77,16 @@ public class ErrorHandler {
         );
     }
 
+    //ограничения на параметрах методов контроллеров с @Validated (например, список в теле запроса)
+    @ExceptionHandler
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleMethodConstraint(javax.validation.ConstraintViolationException e) {
+        return Map.of(
+                "error", "Ошибка при выполнении запроса: " + javax.validation.ConstraintViolationException.class.getSimpleName(),
+                "errorMessage", e.getConstraintViolations().iterator().next().getMessage()
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public Map<String, String> handleValidException1(MethodArgumentNotValidException e) {
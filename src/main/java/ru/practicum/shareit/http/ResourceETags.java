@@ -0,0 +1,66 @@
+package ru.practicum.shareit.http;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Сильные ETag для карточек пользователя и вещи. Считаются одним запросом по первичному ключу,
+ * без сервисов и сборки ответа, поэтому If-None-Match обрабатывается дешевле самого GET.
+ * null - ETag не выдаем (записи нет или сводка бронирований еще не пересчитана) и отвечаем как обычно.
+ */
+@Component
+public class ResourceETags {
+    private static final String ITEM_VERSION = "SELECT I.VERSION, I.OWNER_ID, " +
+            "(SELECT MAX(C.ID) FROM COMMENTS C WHERE C.ITEM_ID = I.ID) AS LAST_COMMENT_ID, " +
+            //в отзывах показывается имя автора - его правки тоже меняют карточку
+            "(SELECT SUM(U.VERSION) FROM COMMENTS C JOIN USERS U ON U.ID = C.AUTHOR_ID " +
+            "WHERE C.ITEM_ID = I.ID) AS AUTHORS_VERSION, " +
+            "S.LAST_BOOKING_ID, S.NEXT_BOOKING_ID, S.NEXT_START " +
+            "FROM ITEMS I LEFT JOIN ITEM_BOOKING_SUMMARY S ON S.ITEM_ID = I.ID WHERE I.ID = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public ResourceETags(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    public String userETag(Integer userId) {
+        List<Integer> versions = jdbcTemplate.queryForList("SELECT VERSION FROM USERS WHERE ID = ?",
+                Integer.class, userId);
+        return versions.isEmpty() ? null : eTag("user", userId, versions.get(0));
+    }
+
+    public String itemETag(Integer itemId, Integer viewerId) {
+        List<String> eTags = jdbcTemplate.query(ITEM_VERSION, (rs, rowNum) -> {
+            boolean owner = Objects.equals(rs.getObject("OWNER_ID", Integer.class), viewerId);
+            Timestamp nextStart = rs.getTimestamp("NEXT_START");
+            if (owner && nextStart != null && !nextStart.toLocalDateTime().isAfter(LocalDateTime.now(clock))) {
+                return null;
+            }
+            //бронирования в карточке видит только владелец
+            return eTag("item", itemId, rs.getInt("VERSION"), rs.getObject("LAST_COMMENT_ID"),
+                    rs.getObject("AUTHORS_VERSION"), owner,
+                    owner ? rs.getObject("LAST_BOOKING_ID") : null,
+                    owner ? rs.getObject("NEXT_BOOKING_ID") : null);
+        }, itemId);
+        return eTags.isEmpty() ? null : eTags.get(0);
+    }
+
+    private String eTag(Object... parts) {
+        StringBuilder source = new StringBuilder();
+        for (Object part : parts) {
+            source.append(part).append('/');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
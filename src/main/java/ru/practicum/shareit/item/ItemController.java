@@ -1,13 +1,31 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.http.ResourceETags;
 import ru.practicum.shareit.item.dto.InputCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemOutDtoWithDate;
 import ru.practicum.shareit.item.dto.OutputCommentDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemStreams;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
@@ -15,14 +33,36 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    //в профиле in-memory загрузчика нет
+    private final ObjectProvider<ItemImportService> itemImportService;
+    private final ObjectMapper objectMapper;
+    private final ResourceETags resourceETags;
+    private final ItemStreams itemStreams;
+    private final String cacheControl;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ObjectProvider<ItemImportService> itemImportService,
+                          ObjectMapper objectMapper,
+                          ResourceETags resourceETags, ItemStreams itemStreams,
+                          @Value("${shareit.http.cache-control.item:no-cache}") String cacheControl) {
         this.itemService = itemService;
+        this.itemImportService = itemImportService;
+        this.objectMapper = objectMapper;
+        this.resourceETags = resourceETags;
+        this.itemStreams = itemStreams;
+        this.cacheControl = cacheControl;
     }
 
+    //If-None-Match с текущим ETag - 304 без обращения к сервису; владелец видит бронирования, поэтому Vary
     @GetMapping("/{itemId}")
     public ItemOutDtoWithDate getItemById(@PathVariable Integer itemId,
-                                          @RequestHeader(value = "X-Sharer-User-Id") Integer userId) {
+                                          @RequestHeader(value = "X-Sharer-User-Id") Integer userId,
+                                          WebRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, "X-Sharer-User-Id");
+        String eTag = resourceETags.itemETag(itemId, userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return itemService.getItemDtoById(itemId, userId);
     }
 
@@ -32,6 +72,15 @@ public class ItemController {
 
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody streamUsersItems(@RequestHeader(value = "X-Sharer-User-Id") Integer ownerId) {
+        //тот же поток, что у /reactive/items, но JSON-массивом. Первый элемент ждем сразу,
+        //чтобы ошибки (нет такого пользователя) ушли обычным ответом
+        Iterator<ItemOutDtoWithDate> items = itemStreams.ownerItems(ownerId).toIterable(1).iterator();
+        items.hasNext();
+        return outputStream -> writeItems(outputStream, items);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> getItemsByContextSearch(@RequestParam("text") String context) {
         return itemService.getItemsByContextSearch(context);
@@ -43,6 +92,17 @@ public class ItemController {
         return itemService.createItem(itemDto);
     }
 
+    //массовая загрузка: JSON-массив вещей или NDJSON (по вещи на строку), ошибки - по номерам строк
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto importItems(InputStream body,
+                                           @RequestHeader(value = "X-Sharer-User-Id") Integer ownerId) throws IOException {
+        ItemImportService importService = itemImportService.getIfAvailable();
+        if (importService == null) {
+            throw new ValidationException("Массовая загрузка в профиле in-memory не поддерживается");
+        }
+        return importService.importItems(ownerId, body);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestBody ItemDto itemDto,
                               @PathVariable Integer itemId,
@@ -61,5 +121,13 @@ public class ItemController {
         return itemService.addCommentToItem(commentDto);
     }
 
+    private void writeItems(OutputStream outputStream, Iterator<ItemOutDtoWithDate> items) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            while (items.hasNext()) {
+                generator.writeObject(items.next());
+            }
+            generator.writeEndArray();
+        }
+    }
 }
-
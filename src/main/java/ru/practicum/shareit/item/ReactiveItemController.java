@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOutDtoWithDate;
+import ru.practicum.shareit.item.service.ItemStreams;
+
+/**
+ * Поиск и список вещей владельца потоком NDJSON: Spring MVC запрашивает у Flux следующий элемент только после
+ * записи предыдущего, поэтому порции из базы читаются по мере записи ответа (ItemStreams).
+ */
+@RestController
+@RequestMapping("/reactive/items")
+public class ReactiveItemController {
+    private final ItemStreams itemStreams;
+
+    public ReactiveItemController(ItemStreams itemStreams) {
+        this.itemStreams = itemStreams;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemOutDtoWithDate> getUsersItems(@RequestHeader(value = "X-Sharer-User-Id") Integer ownerId) {
+        return itemStreams.ownerItems(ownerId);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemDto> getItemsByContextSearch(@RequestParam("text") String context) {
+        return itemStreams.search(context);
+    }
+}
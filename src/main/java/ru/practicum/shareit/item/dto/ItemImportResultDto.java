@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ItemImportResultDto {
+    private int received;
+    private int imported;
+    private List<ItemImportErrorDto> errors = new ArrayList<>();
+}
@@ -1,6 +1,5 @@
 package ru.practicum.shareit.item.dto;
 
-import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.MagicBookings;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -39,8 +38,17 @@ public class ItemMapper {
         outItemDto.setAvailable(item.getAvailable());
         List<OutputCommentDto> commentDtoList = commentList.stream().map(ItemMapper::commentToOutputDto).collect(Collectors.toList());
         outItemDto.setComments(commentDtoList);
-        outItemDto.setLastBooking(BookingMapper.toBookDtoForItem(magicBookings.getLastBooking()));
-        outItemDto.setNextBooking(BookingMapper.toBookDtoForItem(magicBookings.getNextBooking()));
+        outItemDto.setLastBooking(magicBookings.getLastBooking());
+        outItemDto.setNextBooking(magicBookings.getNextBooking());
+        return outItemDto;
+    }
+
+    public static ItemOutDtoWithDate fillItemOutDto(ItemOutDtoWithDate outItemDto,
+                                                    List<OutputCommentDto> commentList,
+                                                    MagicBookings magicBookings) {
+        outItemDto.setComments(commentList);
+        outItemDto.setLastBooking(magicBookings.getLastBooking());
+        outItemDto.setNextBooking(magicBookings.getNextBooking());
         return outItemDto;
     }
 
@@ -65,13 +73,13 @@ public class ItemMapper {
         return item;
     }
 
-    public static Comment inputDtoToComment(InputCommentDto commentDto, Item item, User author) {
+    public static Comment inputDtoToComment(InputCommentDto commentDto, Item item, User author, LocalDateTime now) {
         Comment comment = new Comment();
         comment.setId(commentDto.getId());
         comment.setText(commentDto.getText());
         comment.setItem(item);
         comment.setAuthor(author);
-        comment.setCreated(LocalDateTime.now());
+        comment.setCreated(now);
         return comment;
     }
 }
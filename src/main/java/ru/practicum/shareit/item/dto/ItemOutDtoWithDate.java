@@ -1,11 +1,13 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDtoForUserItemsOutput;
 
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class ItemOutDtoWithDate {
     private Integer id;
     private String name;
@@ -14,4 +16,11 @@ public class ItemOutDtoWithDate {
     private BookingDtoForUserItemsOutput lastBooking;
     private BookingDtoForUserItemsOutput nextBooking;
     private List<OutputCommentDto> comments;
+
+    public ItemOutDtoWithDate(Integer id, String name, String description, Boolean available) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+    }
 }
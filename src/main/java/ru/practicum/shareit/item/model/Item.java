@@ -2,19 +2,28 @@ package ru.practicum.shareit.item.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.config.IdSequences;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "ITEMS")
 public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "OWNER_ID")
     User owner;
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "ITEMS_ID_SEQ",
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "ID")
     private Integer id;
     @Column(name = "NAME", nullable = false, length = 50)
@@ -29,6 +38,13 @@ public class Item {
      */
     @Column(name = "REQUEST_ID")
     private Integer request;
+    //растет при каждом изменении - по ней строится ETag и ловятся одновременные правки
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Integer version;
+    //время последнего изменения - по нему поисковый индекс других экземпляров подбирает правки
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
 
     @Override
     public boolean equals(Object o) {
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item.repositary;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.OutputCommentDto;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    List<Comment> findAllByItemInOrderByCreatedDesc(List<Item> itemList);
+    //отзывы нужны только для вывода - имя автора берем тем же запросом сразу в dto
+    @Query(value = "SELECT new ru.practicum.shareit.item.dto.OutputCommentDto(C.id, C.text, C.item.id, A.name, C.created) " +
+            "FROM Comment C JOIN C.author A WHERE C.item.id IN ?1 ORDER BY C.created DESC")
+    List<OutputCommentDto> findCommentViewsByItemIds(List<Integer> itemIds);
 
 }
@@ -1,26 +1,39 @@
 package ru.practicum.shareit.item.repositary;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemOutDtoWithDate;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
-    Optional<Item> getItemById(Integer itemId);
+    //блокировка строки вещи до конца транзакции: бронирования одной вещи идут по очереди, разных - параллельно
+    @Query(nativeQuery = true, value = "SELECT * FROM ITEMS WHERE ID = ?1 FOR UPDATE")
+    Optional<Item> lockItemById(Integer itemId);
 
-    List<Item> findAllByOwnerOrderById(User owner);
+    //страницы владельца читаем сразу в dto - сущности и контекст персистентности для них не нужны
+    @Query(value = "SELECT new ru.practicum.shareit.item.dto.ItemOutDtoWithDate(I.id, I.name, I.description, I.available) " +
+            "FROM Item I WHERE I.id = ?1")
+    Optional<ItemOutDtoWithDate> findItemViewById(Integer itemId);
 
-    @Query(nativeQuery = true, value = "SELECT * FROM ITEMS " +
-            "WHERE (UPPER(NAME) LIKE '%' ||  ?1 || '%' OR " +
-            "UPPER(DESCRIPTION) LIKE '%' ||  ?1 || '%') AND " +
-            "IS_AVIALABLE = TRUE")
-    List<Item> contextSearch(String context);
+    @Query(value = "SELECT new ru.practicum.shareit.item.dto.ItemOutDtoWithDate(I.id, I.name, I.description, I.available) " +
+            "FROM Item I WHERE I.owner.id = ?1 ORDER BY I.id")
+    List<ItemOutDtoWithDate> findItemViewsByOwner(Integer ownerId);
 
-    @Query(value = "SELECT B.item FROM Booking B WHERE B.item.id = ?1 AND B.status = 'APPROVED' AND B.end <?2")
-    List<Item> getItemsWasCompleteBookingByUser(Integer itemId, LocalDateTime dateTime);
+    @Query(value = "SELECT new ru.practicum.shareit.item.dto.ItemOutDtoWithDate(I.id, I.name, I.description, I.available) " +
+            "FROM Item I WHERE I.owner.id = ?1 AND I.id > ?2 ORDER BY I.id")
+    List<ItemOutDtoWithDate> findItemViewsByOwner(Integer ownerId, Integer afterItemId, Pageable pageable);
+
+    //вещи, измененные начиная с момента since, для догона поискового индекса - индекс (UPDATED_AT, ID)
+    @Query(value = "SELECT I FROM Item I WHERE I.updatedAt >= ?1 ORDER BY I.updatedAt, I.id")
+    List<Item> findChangedSince(LocalDateTime since, Pageable pageable);
+
+    @Query(value = "SELECT B.item FROM Booking B WHERE B.item.id = ?1 AND B.status = ?2 AND B.end < ?3")
+    List<Item> getItemsWasCompleteBookingByUser(Integer itemId, BookingStatus status, LocalDateTime dateTime);
 
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Приведенный к одному регистру текст вещи для проверки кандидатов поиска.
+ * Латиница, цифры, знаки ASCII и строчная кириллица занимают по байту; текст с другими символами
+ * хранится как char[]. Кодирование взаимно однозначное, поэтому вхождение подстроки проверяется
+ * прямо на байтах, а исходный текст восстанавливается без второй копии.
+ */
+final class CompactText {
+    private static final char CYRILLIC_A = 'а';
+    private static final char CYRILLIC_YA = 'я';
+    private static final char CYRILLIC_YO = 'ё';
+    private static final int CYRILLIC_BASE = 0x80;
+    private static final int YO_CODE = CYRILLIC_BASE + (CYRILLIC_YA - CYRILLIC_A) + 1;
+
+    private final byte[] bytes;
+    private final char[] chars;
+
+    private CompactText(byte[] bytes, char[] chars) {
+        this.bytes = bytes;
+        this.chars = chars;
+    }
+
+    static CompactText of(String folded) {
+        byte[] bytes = encode(folded);
+        return bytes != null ? new CompactText(bytes, null) : new CompactText(null, folded.toCharArray());
+    }
+
+    //null - в тексте есть символ без однобайтового кода
+    static byte[] encode(String folded) {
+        byte[] bytes = new byte[folded.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            int code = code(folded.charAt(i));
+            if (code < 0) {
+                return null;
+            }
+            bytes[i] = (byte) code;
+        }
+        return bytes;
+    }
+
+    //encodedQuery - encode(query): однобайтовый текст не может содержать запрос с символом без кода
+    boolean contains(String query, byte[] encodedQuery) {
+        if (bytes == null) {
+            return indexOf(chars, query) >= 0;
+        }
+        return encodedQuery != null && indexOf(bytes, encodedQuery) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        if (bytes == null) {
+            return new String(chars);
+        }
+        char[] decoded = new char[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            decoded[i] = decode(bytes[i] & 0xff);
+        }
+        return new String(decoded);
+    }
+
+    private static int code(char c) {
+        if (c < CYRILLIC_BASE) {
+            return c;
+        }
+        if (c >= CYRILLIC_A && c <= CYRILLIC_YA) {
+            return CYRILLIC_BASE + (c - CYRILLIC_A);
+        }
+        return c == CYRILLIC_YO ? YO_CODE : -1;
+    }
+
+    private static char decode(int code) {
+        if (code < CYRILLIC_BASE) {
+            return (char) code;
+        }
+        return code == YO_CODE ? CYRILLIC_YO : (char) (CYRILLIC_A + (code - CYRILLIC_BASE));
+    }
+
+    private static int indexOf(byte[] text, byte[] pattern) {
+        for (int i = 0; i + pattern.length <= text.length; i++) {
+            int j = 0;
+            while (j < pattern.length && text[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(char[] text, String pattern) {
+        for (int i = 0; i + pattern.length() <= text.length; i++) {
+            int j = 0;
+            while (j < pattern.length() && text[i + j] == pattern.charAt(j)) {
+                j++;
+            }
+            if (j == pattern.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
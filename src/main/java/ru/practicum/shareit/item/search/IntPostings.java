@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+//возрастающий список id вещей без упаковки в Integer. Вещи приходят в основном по возрастанию id
+//(перестроение, новые вещи), поэтому добавление обычно дописывает в конец
+final class IntPostings {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    void add(int id) {
+        if (size == 0 || ids[size - 1] < id) {
+            grow();
+            ids[size++] = id;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        grow();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    //позиция первого id не меньше заданного, начиная с from - для пересечения списков по возрастанию id
+    int seek(int id, int from) {
+        int position = Arrays.binarySearch(ids, from, size, id);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void grow() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
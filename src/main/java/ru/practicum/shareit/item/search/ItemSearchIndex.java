@@ -0,0 +1,272 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositary.ItemRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по названию и описанию доступных вещей: для каждой подстроки длиной до GRAM_SIZE
+ * символов - возрастающий список id вещей (IntPostings). Запрос не длиннее GRAM_SIZE отвечается одним списком,
+ * более длинный - пересечением списков его триграмм с проверкой вхождения по тексту вещи (CompactText).
+ * Списки обходятся по возрастанию id, обход останавливается на shareit.items.search.max-results вещах.
+ * <p>
+ * Индекс строится до запуска веб-сервера (afterSingletonsInstantiated), поиск во время перестроения ждет его конца.
+ * Свои изменения экземпляр вносит после коммита, чужие (другие экземпляры) подбирает плановый проход catchUp
+ * по ITEMS.UPDATED_AT с перекрытием shareit.items.search.catch-up-overlap-ms - оно покрывает транзакции,
+ * закоммиченные позже своего UPDATED_AT, и расхождение часов экземпляров. Правки в обход сервиса без UPDATED_AT
+ * видны только после перестроения.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int GRAM_SIZE = 3;
+    private static final int PAGE_SIZE = 1000;
+    //разделитель не дает запросу совпасть на стыке названия и описания
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+    private final Duration catchUpOverlap;
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntPostings> postings = new HashMap<>();
+    //текст и версия вещи по ее id: устаревшая копия (догон прочитал вещь до ее правки) не затирает новую
+    private CompactText[] documents = new CompactText[0];
+    private int[] versions = new int[0];
+    private int documentCount;
+    private volatile LocalDateTime caughtUpTo;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.items.search.max-results:1000}") int maxResults,
+                           @Value("${shareit.items.search.catch-up-overlap-ms:60000}") long catchUpOverlapMs,
+                           Clock clock) {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+        this.catchUpOverlap = Duration.ofMillis(catchUpOverlapMs);
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime started = LocalDateTime.now(clock);
+            postings.clear();
+            documents = new CompactText[0];
+            versions = new int[0];
+            documentCount = 0;
+            int page = 0;
+            Page<Item> itemPage;
+            do {
+                itemPage = itemRepository.findAll(PageRequest.of(page++, PAGE_SIZE, Sort.by("id")));
+                itemPage.forEach(this::indexLocked);
+            } while (itemPage.hasNext());
+            caughtUpTo = started;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен, вещей в индексе: {}", documentCount);
+    }
+
+    //вещи, измененные другими экземплярами; свои изменения проход просто индексирует повторно
+    @Scheduled(fixedDelayString = "${shareit.items.search.catch-up-interval-ms:10000}")
+    public void catchUp() {
+        LocalDateTime since = caughtUpTo;
+        if (since == null) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now(clock);
+        int page = 0;
+        int changed = 0;
+        List<Item> items;
+        do {
+            items = itemRepository.findChangedSince(since.minus(catchUpOverlap), PageRequest.of(page++, PAGE_SIZE));
+            items.forEach(this::index);
+            changed += items.size();
+        } while (items.size() == PAGE_SIZE);
+        caughtUpTo = started;
+        log.debug("Поисковый индекс догнал изменения вещей: {}", changed);
+    }
+
+    public void indexAfterCommit(Item item) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(item);
+                }
+            });
+        } else {
+            index(item);
+        }
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            indexLocked(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Integer> search(String text) {
+        String query = fold(text);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            if (query.length() <= GRAM_SIZE) {
+                //все подстроки до GRAM_SIZE символов проиндексированы - список точный, проверять тексты не нужно
+                IntPostings ids = postings.get(query);
+                return ids == null ? new ArrayList<>() : firstIds(List.of(ids), null, null);
+            }
+            List<IntPostings> gramLists = new ArrayList<>();
+            for (String gram : grams(query, GRAM_SIZE)) {
+                IntPostings ids = postings.get(gram);
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                gramLists.add(ids);
+            }
+            gramLists.sort(Comparator.comparingInt(IntPostings::size));
+            return firstIds(gramLists, query, CompactText.encode(query));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //обход самого короткого списка по возрастанию id; в остальных списках позиция только растет
+    private List<Integer> firstIds(List<IntPostings> lists, String query, byte[] encodedQuery) {
+        List<Integer> result = new ArrayList<>();
+        IntPostings shortest = lists.get(0);
+        int[] positions = new int[lists.size()];
+        for (int i = 0; i < shortest.size() && result.size() < maxResults; i++) {
+            int id = shortest.get(i);
+            if (inAllLists(lists, positions, id) && (query == null || documents[id].contains(query, encodedQuery))) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private boolean inAllLists(List<IntPostings> lists, int[] positions, int id) {
+        for (int k = 1; k < lists.size(); k++) {
+            IntPostings ids = lists.get(k);
+            positions[k] = ids.seek(id, positions[k]);
+            if (positions[k] == ids.size() || ids.get(positions[k]) != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void indexLocked(Item item) {
+        int id = item.getId();
+        int version = item.getVersion() == null ? 0 : item.getVersion();
+        ensureCapacity(id);
+        if (version < versions[id]) {
+            return;
+        }
+        versions[id] = version;
+        removeLocked(id);
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        String name = fold(item.getName());
+        String description = fold(item.getDescription());
+        documents[id] = CompactText.of(name + FIELD_SEPARATOR + description);
+        documentCount++;
+        for (String gram : documentGrams(name, description)) {
+            postings.computeIfAbsent(gram, k -> new IntPostings()).add(id);
+        }
+    }
+
+    private void removeLocked(int id) {
+        if (id >= documents.length || documents[id] == null) {
+            return;
+        }
+        String document = documents[id].toString();
+        documents[id] = null;
+        documentCount--;
+        int separator = document.indexOf(FIELD_SEPARATOR);
+        for (String gram : documentGrams(document.substring(0, separator), document.substring(separator + 1))) {
+            IntPostings ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.size() == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= documents.length) {
+            int capacity = Math.max(id + 1, documents.length * 2);
+            documents = Arrays.copyOf(documents, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+    }
+
+    //подстроки каждого поля длиной от 1 до GRAM_SIZE
+    private Set<String> documentGrams(String name, String description) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM_SIZE; length++) {
+            grams.addAll(grams(name, length));
+            grams.addAll(grams(description, length));
+        }
+        return grams;
+    }
+
+    private Set<String> grams(String text, int length) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    //посимвольно, без смены длины строки (в отличие от toUpperCase для "ß")
+    private String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            char c = text.charAt(i);
+            folded[i] = c == FIELD_SEPARATOR ? ' ' : Character.toLowerCase(Character.toUpperCase(c));
+        }
+        return new String(folded);
+    }
+}
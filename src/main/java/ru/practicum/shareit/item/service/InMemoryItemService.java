@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.MagicBookings;
+import ru.practicum.shareit.exceptions.ResourceNotFoundException;
+import ru.practicum.shareit.exceptions.RightsException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Вещи профиля in-memory: хранилище в памяти вместо базы. Бронирования и отзывы живут в базе
+ * и ссылаются на строки ITEMS и USERS, которых в этом профиле нет, - такие запросы отклоняются.
+ */
+@Slf4j
+@Service
+@Profile("in-memory")
+public class InMemoryItemService implements ItemService {
+    private final ItemStorage itemStorage;
+    private final UserService userService;
+    private final Clock clock;
+    private final AtomicInteger lastId;
+
+    public InMemoryItemService(ItemStorage itemStorage, UserService userService, Clock clock) {
+        this.itemStorage = itemStorage;
+        this.userService = userService;
+        this.clock = clock;
+        this.lastId = new AtomicInteger(itemStorage.getItemList().stream().mapToInt(Item::getId).max().orElse(0));
+    }
+
+    @Override
+    public ItemDto createItem(ItemDto itemDto) {
+        Item item = ItemMapper.toItem(itemDto, userService.getUserById(itemDto.getOwner()));
+        if (!item.getAvailable()) {
+            throw new ValidationException("При создании Item не может быть недоступным!");
+        }
+        //id выдает счетчик, присланный клиентом не используем
+        item.setId(lastId.incrementAndGet());
+        item.setVersion(0);
+        item.setUpdatedAt(LocalDateTime.now(clock));
+        return ItemMapper.toItemDto(itemStorage.createItem(item));
+    }
+
+    @Override
+    public ItemDto updateItem(ItemDto itemDto) {
+        User owner = userService.getUserById(itemDto.getOwner());
+        Item item = getItemById(itemDto.getId());
+        //отредактировать вещь может только ее владелец
+        if (!owner.equals(item.getOwner())) {
+            throw new RightsException("Редактировать вещь может только ее вдладелец");
+        }
+        if (itemDto.getName() != null) {
+            item.setName(itemDto.getName());
+        }
+        if (itemDto.getDescription() != null) {
+            item.setDescription(itemDto.getDescription());
+        }
+        if (itemDto.getAvailable() != null) {
+            item.setAvailable(itemDto.getAvailable());
+        }
+        item.setVersion(item.getVersion() + 1);
+        item.setUpdatedAt(LocalDateTime.now(clock));
+        return ItemMapper.toItemDto(itemStorage.updateItem(item));
+    }
+
+    @Override
+    public ItemOutDtoWithDate getItemDtoById(Integer itemId, Integer userId) {
+        return toItemOut(getItemById(itemId));
+    }
+
+    @Override
+    public Item getItemById(Integer itemId) {
+        return itemStorage.getItemById(itemId).orElseThrow(
+                () -> {
+                    String msg = "Не нашел item с Id = " + itemId;
+                    log.warn(msg);
+                    throw new ResourceNotFoundException(msg);
+                }
+        );
+    }
+
+    @Override
+    public Item lockItemById(Integer itemId) {
+        throw new ValidationException("Бронирования в профиле in-memory не поддерживаются");
+    }
+
+    @Override
+    public List<ItemOutDtoWithDate> getUsersItems(Integer ownerId) {
+        userService.getUserById(ownerId);
+        return itemStorage.getUsersItems(ownerId).stream().map(this::toItemOut).collect(Collectors.toList());
+    }
+
+    //вещи владельца в хранилище уже упорядочены по id
+    @Override
+    public List<ItemOutDtoWithDate> getUsersItemsChunk(Integer ownerId, Integer afterItemId, Integer size) {
+        userService.getUserById(ownerId);
+        return itemStorage.getUsersItems(ownerId).stream()
+                .filter(item -> item.getId() > afterItemId)
+                .limit(size)
+                .map(this::toItemOut)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> getItemsByContextSearch(String context) {
+        return itemStorage.getItemsByContextSearch(context).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Integer> searchItemIds(String context) {
+        return itemStorage.getItemsByContextSearch(context).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> getAvailableItems(List<Integer> itemIds) {
+        return itemIds.stream()
+                .sorted()
+                .map(itemStorage::getItemById)
+                .flatMap(Optional::stream)
+                .filter(Item::getAvailable)
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public OutputCommentDto addCommentToItem(InputCommentDto commentDto) {
+        throw new ValidationException("Отзывы в профиле in-memory не поддерживаются");
+    }
+
+    private ItemOutDtoWithDate toItemOut(Item item) {
+        return ItemMapper.toItemOutDtoWithDate(item, new ArrayList<>(), new MagicBookings());
+    }
+}
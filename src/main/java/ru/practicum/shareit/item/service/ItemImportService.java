@@ -0,0 +1,174 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositary.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка вещей владельца из JSON-массива или NDJSON.
+ * Строки читаются потоком и сохраняются порциями: одна транзакция и пачки INSERT на порцию,
+ * id берутся из последовательности блоками (allocationSize у Item). Если порция не сохранилась,
+ * ее строки сохраняются по одной, чтобы отказ одной строки не отменял остальные.
+ * Пишет прямо в ITEMS, поэтому в профиле in-memory не создается.
+ */
+@Slf4j
+@Service
+@Profile("!in-memory")
+public class ItemImportService {
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final Validator validator;
+    private final ObjectReader itemReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Clock clock;
+
+    public ItemImportService(ItemRepository itemRepository, UserService userService, ItemSearchIndex itemSearchIndex,
+                             Validator validator, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${shareit.items.import-chunk-size:500}") int chunkSize,
+                             Clock clock) {
+        this.itemRepository = itemRepository;
+        this.userService = userService;
+        this.itemSearchIndex = itemSearchIndex;
+        this.validator = validator;
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.clock = clock;
+    }
+
+    public ItemImportResultDto importItems(Integer ownerId, InputStream body) throws IOException {
+        User owner = userService.getUserById(ownerId);
+        ItemImportResultDto result = new ItemImportResultDto();
+        //номер строки -> вещь; порядок вставки сохраняем
+        Map<Integer, Item> chunk = new LinkedHashMap<>();
+        int row = 0;
+        try (MappingIterator<ItemDto> rows = itemReader.readValues(body)) {
+            while (hasNext(rows, row, result)) {
+                row++;
+                ItemDto itemDto;
+                try {
+                    itemDto = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    result.getErrors().add(new ItemImportErrorDto(row, e.getOriginalMessage()));
+                    continue;
+                }
+                String error = validate(itemDto);
+                if (error != null) {
+                    result.getErrors().add(new ItemImportErrorDto(row, error));
+                    continue;
+                }
+                Item item = ItemMapper.toItem(itemDto, owner);
+                //id выдает последовательность, присланный клиентом не используем
+                item.setId(null);
+                item.setVersion(null);
+                item.setUpdatedAt(LocalDateTime.now(clock));
+                chunk.put(row, item);
+                if (chunk.size() == chunkSize) {
+                    saveChunk(chunk, result);
+                }
+            }
+        }
+        saveChunk(chunk, result);
+        result.setReceived(row);
+        result.getErrors().sort(Comparator.comparing(ItemImportErrorDto::getRow));
+        log.info("Загрузка вещей владельца {}: строк {}, сохранено {}, с ошибками {}",
+                ownerId, row, result.getImported(), result.getErrors().size());
+        return result;
+    }
+
+    private boolean hasNext(MappingIterator<ItemDto> rows, int row, ItemImportResultDto result) {
+        try {
+            return rows.hasNextValue();
+        } catch (IOException e) {
+            //поток дальше не разобрать - то, что уже прочитано, все равно сохраняем
+            result.getErrors().add(new ItemImportErrorDto(row + 1, e.getMessage()));
+            return false;
+        }
+    }
+
+    private String validate(ItemDto itemDto) {
+        if (itemDto == null) {
+            return "Пустая строка";
+        }
+        String error = validator.validate(itemDto).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!error.isEmpty()) {
+            return error;
+        }
+        if (!itemDto.getAvailable()) {
+            return "При создании Item не может быть недоступным!";
+        }
+        return null;
+    }
+
+    private void saveChunk(Map<Integer, Item> chunk, ItemImportResultDto result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Item> items = new ArrayList<>(chunk.values());
+        try {
+            transactionTemplate.executeWithoutResult(status -> save(items));
+            result.setImported(result.getImported() + items.size());
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Порция из {} вещей не сохранилась, сохраняю по одной: {}", items.size(), e.getMessage());
+            for (Map.Entry<Integer, Item> entry : chunk.entrySet()) {
+                Item item = entry.getValue();
+                //откатившаяся порция успела выдать вещи id и версию; с версией Spring Data сочтет вещь
+                //уже сохраненной и вызовет merge вместо persist
+                item.setId(null);
+                item.setVersion(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> save(List.of(item)));
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException | TransactionException rowException) {
+                    result.getErrors().add(new ItemImportErrorDto(entry.getKey(),
+                            NestedExceptionUtils.getMostSpecificCause(rowException).getMessage()));
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void save(List<Item> items) {
+        for (Item item : itemRepository.saveAll(items)) {
+            itemSearchIndex.indexAfterCommit(item);
+        }
+    }
+}
@@ -17,9 +17,17 @@ public interface ItemService {
 
     Item getItemById(Integer itemId);
 
+    Item lockItemById(Integer itemId);
+
     List<ItemOutDtoWithDate> getUsersItems(Integer ownerId);
 
+    List<ItemOutDtoWithDate> getUsersItemsChunk(Integer ownerId, Integer afterItemId, Integer size);
+
     List<ItemDto> getItemsByContextSearch(String context);
 
+    List<Integer> searchItemIds(String context);
+
+    List<ItemDto> getAvailableItems(List<Integer> itemIds);
+
     OutputCommentDto addCommentToItem(InputCommentDto commentDto);
 }
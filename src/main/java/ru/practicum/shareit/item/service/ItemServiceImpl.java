@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoForUserItemsOutput;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.MagicBookings;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repositary.BookingRepositary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
 import ru.practicum.shareit.exceptions.ResourceNotFoundException;
 import ru.practicum.shareit.exceptions.RightsException;
 import ru.practicum.shareit.exceptions.ValidationException;
@@ -15,12 +19,14 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositary.CommentRepository;
 import ru.practicum.shareit.item.repositary.ItemRepository;
-import ru.practicum.shareit.numerators.ItemNumerator;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +34,7 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Profile("!in-memory")
 @Transactional
 public class ItemServiceImpl implements ItemService {
 
@@ -35,27 +42,52 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepositary bookingRepositary;
     private final UserService userService;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final Clock clock;
 
     public ItemServiceImpl(ItemRepository itemRepository, UserService userService,
-                           BookingRepositary bookingRepositary, CommentRepository commentRepository) {
+                           BookingRepositary bookingRepositary, CommentRepository commentRepository,
+                           ItemSearchIndex itemSearchIndex, ItemBookingSummaryRepository summaryRepository,
+                           Clock clock) {
         this.itemRepository = itemRepository;
         this.userService = userService;
         this.bookingRepositary = bookingRepositary;
         this.commentRepository = commentRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.summaryRepository = summaryRepository;
+        this.clock = clock;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemOutDtoWithDate getItemDtoById(Integer itemId, Integer userId) {
-        Item item = getItemById(itemId);
-        List<Comment> commentList = commentRepository.findAllByItemInOrderByCreatedDesc(List.of(item));
-        List<Booking> bookingList = bookingRepositary.getBookingsByItemOwner(itemId, userId);
-        MagicBookings magicBookings = getMagicBookings(bookingList);
-        return ItemMapper.toItemOutDtoWithDate(item, commentList, magicBookings);
+        ItemOutDtoWithDate itemView = itemRepository.findItemViewById(itemId).orElseThrow(
+                () -> {
+                    String msg = "Не нашел item с Id = " + itemId;
+                    log.warn(msg);
+                    throw new ResourceNotFoundException(msg);
+                }
+        );
+        //бронирования видит только владелец - для остальных запрос ничего не вернет
+        return fillItemsOut(List.of(itemView), userId).get(0);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Item getItemById(Integer itemId) {
-        return itemRepository.getItemById(itemId).orElseThrow(
+        return itemRepository.findById(itemId).orElseThrow(
+                () -> {
+                    String msg = "Не нашел item с Id = " + itemId;
+                    log.warn(msg);
+                    throw new ResourceNotFoundException(msg);
+                }
+        );
+    }
+
+    @Override
+    public Item lockItemById(Integer itemId) {
+        return itemRepository.lockItemById(itemId).orElseThrow(
                 () -> {
                     String msg = "Не нашел item с Id = " + itemId;
                     log.warn(msg);
@@ -65,101 +97,101 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemOutDtoWithDate> getUsersItems(Integer ownerId) {
-        List<ItemOutDtoWithDate> outList = new ArrayList<>();
-        List<Item> itemList = itemRepository.findAllByOwnerOrderById(userService.getUserById(ownerId));
-        Map<Integer, List<Comment>> commentMap = getCommentsMap(itemList);
-        Map<Integer, List<Booking>> bookingMap = getBookingMap(itemList);
-        for (Item item : itemList) {
-            List<Comment> commentList = commentMap.get(item.getId());
-            if (commentList == null) {
-                commentList = new ArrayList<>();
-            }
-            List<Booking> bookingList = bookingMap.get(item.getId());
-            if (bookingList == null) {
-                bookingList = new ArrayList<>();
-            }
-            MagicBookings magicBookings = getMagicBookings(bookingList);
-            outList.add(ItemMapper.toItemOutDtoWithDate(item, commentList, magicBookings));
+        userService.getUserById(ownerId);
+        return fillItemsOut(itemRepository.findItemViewsByOwner(ownerId), ownerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemOutDtoWithDate> getUsersItemsChunk(Integer ownerId, Integer afterItemId, Integer size) {
+        userService.getUserById(ownerId);
+        return fillItemsOut(itemRepository.findItemViewsByOwner(ownerId, afterItemId, PageRequest.of(0, size)),
+                ownerId);
+    }
+
+    private List<ItemOutDtoWithDate> fillItemsOut(List<ItemOutDtoWithDate> itemList, Integer ownerId) {
+        if (itemList.isEmpty()) {
+            return itemList;
+        }
+        List<Integer> itemIds = itemList.stream().map(ItemOutDtoWithDate::getId).collect(Collectors.toList());
+        Map<Integer, List<OutputCommentDto>> commentMap = getCommentsMap(itemIds);
+        Map<Integer, MagicBookings> bookingMap = getMagicBookingsMap(itemIds, ownerId);
+        for (ItemOutDtoWithDate item : itemList) {
+            ItemMapper.fillItemOutDto(item,
+                    commentMap.getOrDefault(item.getId(), new ArrayList<>()),
+                    bookingMap.getOrDefault(item.getId(), new MagicBookings()));
         }
-        return outList;
+        return itemList;
     }
 
-    private MagicBookings getMagicBookings(List<Booking> bookingList) {
-        //букинги отсортированы в порядке возрастания даты начала....
+    private Map<Integer, MagicBookings> getMagicBookingsMap(List<Integer> itemIds, Integer ownerId) {
         //Последнее бронирование таково, что началось в самом ближайшем прошлом. А следующее, которое начнется в самом ближайшем будущем.
-        MagicBookings magicBookings = new MagicBookings();
-        LocalDateTime now = LocalDateTime.now();
-        if (bookingList.size() == 0) {
-            magicBookings.setLastBooking(null);
-            magicBookings.setNextBooking(null);
-        } else {
-            for (Booking booking : bookingList) {
-                if (booking.getStart().isBefore(now)) {
-                    magicBookings.setLastBooking(booking);
-                }
-                if (booking.getStart().isAfter(now)) {
-                    magicBookings.setNextBooking(booking);
-                    break;
-                }
-            }
+        //Они заранее лежат в ITEM_BOOKING_SUMMARY; вещи, чья сводка устарела (следующее уже началось),
+        //пока их не пересчитал rollForward, считаем по таблице бронирований.
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Object[]> rows = new ArrayList<>(summaryRepository.getSummaryBookings(itemIds, ownerId, now));
+        List<Integer> staleItemIds = summaryRepository.getStaleItemIds(itemIds, now);
+        if (!staleItemIds.isEmpty()) {
+            rows.addAll(bookingRepositary.getLastAndNextBookings(staleItemIds, ownerId,
+                    BookingStatus.APPROVED.getCode(), now));
         }
-        return magicBookings;
-    }
-
-    private Map<Integer, List<Booking>> getBookingMap(List<Item> itemList) {
-        List<Booking> bookingList = bookingRepositary.findAllByItemInAndStatusOrderByStart(itemList,
-                BookingStatus.APPROVED.getName());
-        Map<Integer, List<Booking>> outMap = new HashMap<>();
-        List<Booking> currList;
-        Integer currItemId;
-        for (Booking booking : bookingList) {
-            currItemId = booking.getItem().getId();
-            if (outMap.containsKey(currItemId)) {
-                currList = outMap.get(currItemId);
+        Map<Integer, MagicBookings> outMap = new HashMap<>();
+        for (Object[] row : rows) {
+            BookingDtoForUserItemsOutput booking = BookingMapper.rowToBookDtoForItem(row);
+            MagicBookings magicBookings = outMap.computeIfAbsent(BookingMapper.rowToItemId(row),
+                    id -> new MagicBookings());
+            if (booking.getStart().isBefore(now)) {
+                magicBookings.setLastBooking(booking);
             } else {
-                currList = new ArrayList<>();
+                magicBookings.setNextBooking(booking);
             }
-            currList.add(booking);
-            outMap.put(currItemId, currList);
         }
         return outMap;
     }
 
-    private Map<Integer, List<Comment>>  getCommentsMap(List<Item> itemList) {
-        List<Comment> commentList = commentRepository.findAllByItemInOrderByCreatedDesc(itemList);
-        Map<Integer, List<Comment>> outMap = new HashMap<>();
-        List<Comment> currList;
-        Integer currItemId;
-        for (Comment comment: commentList) {
-            currItemId = comment.getItem().getId();
-            if (outMap.containsKey(currItemId)) {
-                currList = outMap.get(currItemId);
-            } else {
-                currList = new ArrayList<>();
-            }
-            currList.add(comment);
-            outMap.put(currItemId, currList);
+    private Map<Integer, List<OutputCommentDto>> getCommentsMap(List<Integer> itemIds) {
+        Map<Integer, List<OutputCommentDto>> outMap = new HashMap<>();
+        for (OutputCommentDto comment : commentRepository.findCommentViewsByItemIds(itemIds)) {
+            outMap.computeIfAbsent(comment.getItemId(), id -> new ArrayList<>()).add(comment);
         }
         return outMap;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getItemsByContextSearch(String context) {
-        String upperContext = context.toUpperCase();
+        return getAvailableItems(searchItemIds(context));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Integer> searchItemIds(String context) {
         if (context.isEmpty()) {
             return new ArrayList<>();
-        } else {
-            //return itemRepository.contextSearch(upperContext).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
-        return itemRepository.contextSearch(upperContext).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
         }
+        return itemSearchIndex.search(context);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getAvailableItems(List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepository.findAllById(itemIds).stream()
+                .filter(Item::getAvailable)
+                .sorted(Comparator.comparing(Item::getId))
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
     }
 
     @Override
     public OutputCommentDto addCommentToItem(InputCommentDto commentDto) {
         Item item = getItemById(commentDto.getItemId());
         User author = userService.getUserById(commentDto.getAuthorId());
-        Comment comment = ItemMapper.inputDtoToComment(commentDto, item, author);
+        Comment comment = ItemMapper.inputDtoToComment(commentDto, item, author, LocalDateTime.now(clock));
         checkComment(comment);
         return ItemMapper.commentToOutputDto(commentRepository.save(comment));
     }
@@ -168,8 +200,12 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto createItem(ItemDto itemDto) {
         Item item = ItemMapper.toItem(itemDto, userService.getUserById(itemDto.getOwner()));
         checkAvailable(item);
-        item.setId(ItemNumerator.getCurrenItemId());
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        //id выдает последовательность, присланный клиентом не используем
+        item.setId(null);
+        item.setUpdatedAt(LocalDateTime.now(clock));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.indexAfterCommit(savedItem);
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
@@ -188,7 +224,10 @@ public class ItemServiceImpl implements ItemService {
         if (item.getAvailable() != null) {
             oldItem.setAvailable(item.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(oldItem));
+        oldItem.setUpdatedAt(LocalDateTime.now(clock));
+        Item savedItem = itemRepository.save(oldItem);
+        itemSearchIndex.indexAfterCommit(savedItem);
+        return ItemMapper.toItemDto(savedItem);
     }
 
     private void checkAvailable(Item item) {
@@ -206,7 +245,8 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private void checkComment(Comment comment) {
-        List<Item> tmpList = itemRepository.getItemsWasCompleteBookingByUser(comment.getItem().getId(), comment.getCreated());
+        List<Item> tmpList = itemRepository.getItemsWasCompleteBookingByUser(comment.getItem().getId(),
+                BookingStatus.APPROVED, comment.getCreated());
         if (tmpList.size() == 0) {
             String msg = "Пользователь не брал вещь в аренду или аренда не закончена";
             log.warn(msg);
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOutDtoWithDate;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Вещи владельца и результаты поиска потоком: следующая порция (shareit.items.stream-chunk-size) читается из базы
+ * только по запросу следующего элемента, в памяти одновременно не больше одной порции.
+ * Блокирующие вызовы JPA выполняются на boundedElastic. Один поток на оба представления:
+ * NDJSON (/reactive/items) и JSON-массив (/items/stream).
+ */
+@Service
+public class ItemStreams {
+    private final ItemService itemService;
+    private final int chunkSize;
+
+    public ItemStreams(ItemService itemService, @Value("${shareit.items.stream-chunk-size:100}") int chunkSize) {
+        this.itemService = itemService;
+        this.chunkSize = chunkSize;
+    }
+
+    //keyset по id: следующая порция начинается после последней вещи предыдущей
+    public Flux<ItemOutDtoWithDate> ownerItems(Integer ownerId) {
+        return blocking(() -> itemService.getUsersItemsChunk(ownerId, 0, chunkSize))
+                .expand(chunk -> chunk.size() < chunkSize ? Mono.empty() :
+                        blocking(() -> itemService.getUsersItemsChunk(ownerId, chunk.get(chunk.size() - 1).getId(),
+                                chunkSize)))
+                .concatMapIterable(Function.identity());
+    }
+
+    //индекс отдает только id, сами вещи читаем порциями
+    public Flux<ItemDto> search(String text) {
+        return blocking(() -> itemService.searchItemIds(text))
+                .flatMapMany(itemIds -> Flux.fromIterable(itemIds).buffer(chunkSize))
+                .concatMap(itemIds -> blocking(() -> itemService.getAvailableItems(itemIds)), 1)
+                .concatMapIterable(Function.identity());
+    }
+
+    private <T> Mono<List<T>> blocking(Callable<List<T>> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,266 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.StorageJournal;
+import ru.practicum.shareit.storage.StorageJournals;
+import ru.practicum.shareit.storage.StripedIntMap;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PreDestroy;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Хранилище вещей в памяти для профиля in-memory: потокобезопасное, с ключами int.
+ * Хранятся неизменяемые копии, наружу отдаются новые копии - изменения объектов вызывающим кодом хранилище не задевают.
+ * Строка поиска (название и описание в верхнем регистре) считается один раз при записи,
+ * вещи владельца - вторичный индекс owner -> отсортированный массив id. Владелец хранится только своим id.
+ * Изменения пишутся в журнал "items" (StorageJournal), при создании хранилище восстанавливается из него.
+ */
+@Component
+@Profile("in-memory")
+public class ConcurrentItemStorage implements ItemStorage {
+    private static final int[] NO_ITEMS = new int[0];
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final StripedIntMap<StoredItem> items = new StripedIntMap<>();
+    private final StripedIntMap<int[]> ownerItems = new StripedIntMap<>();
+    private final StorageJournal journal;
+
+    public ConcurrentItemStorage(StorageJournals journals) {
+        this.journal = journals.open("items", this::replay, this::snapshot);
+    }
+
+    @Override
+    public Item createItem(Item item) {
+        return updateItem(item);
+    }
+
+    @Override
+    public Item updateItem(Item item) {
+        StoredItem stored = new StoredItem(item);
+        journal.write(out -> writePut(out, stored), () -> put(stored));
+        return stored.toItem();
+    }
+
+    @Override
+    public void deleteItem(Item item) {
+        int itemId = item.getId();
+        journal.write(out -> {
+            out.writeByte(DELETE);
+            out.writeInt(itemId);
+        }, () -> remove(itemId));
+    }
+
+    @Override
+    public Optional<Item> getItemById(int itemId) {
+        return Optional.ofNullable(items.get(itemId)).map(StoredItem::toItem);
+    }
+
+    @Override
+    public List<Item> getItemList() {
+        List<StoredItem> storedItems = items.values();
+        storedItems.sort(Comparator.comparingInt(stored -> stored.id));
+        List<Item> itemList = new ArrayList<>(storedItems.size());
+        for (StoredItem stored : storedItems) {
+            itemList.add(stored.toItem());
+        }
+        return itemList;
+    }
+
+    @Override
+    public List<Item> getUsersItems(Integer ownerId) {
+        int[] ids = ownerItems.get(ownerId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Item> itemList = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            StoredItem stored = items.get(id);
+            //вещь могли удалить между чтением индекса и чтением вещи
+            if (stored != null) {
+                itemList.add(stored.toItem());
+            }
+        }
+        return itemList;
+    }
+
+    @Override
+    public List<Item> getItemsByContextSearch(String context) {
+        List<Item> itemList = new ArrayList<>();
+        if (context.isEmpty()) {
+            return itemList;
+        }
+        String searchKey = normalize(context);
+        List<StoredItem> storedItems = items.values();
+        storedItems.sort(Comparator.comparingInt(stored -> stored.id));
+        for (StoredItem stored : storedItems) {
+            if (stored.available && stored.searchKey.contains(searchKey)) {
+                itemList.add(stored.toItem());
+            }
+        }
+        return itemList;
+    }
+
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+
+    private void put(StoredItem stored) {
+        //сначала вещь, потом индекс: найденный по индексу id всегда указывает на вещь
+        StoredItem previous = items.put(stored.id, stored);
+        if (previous == null || previous.ownerId != stored.ownerId) {
+            ownerItems.update(stored.ownerId, ids -> withId(ids, stored.id));
+            if (previous != null) {
+                ownerItems.update(previous.ownerId, ids -> withoutId(ids, stored.id));
+            }
+        }
+    }
+
+    private void remove(int itemId) {
+        StoredItem stored = items.get(itemId);
+        if (stored == null) {
+            return;
+        }
+        //сначала индекс, потом вещь
+        ownerItems.update(stored.ownerId, ids -> withoutId(ids, stored.id));
+        items.remove(stored.id);
+    }
+
+    private void replay(DataInput in) throws IOException {
+        if (in.readByte() == DELETE) {
+            remove(in.readInt());
+            return;
+        }
+        put(StoredItem.read(in));
+    }
+
+    private List<StorageJournal.RecordWriter> snapshot() {
+        List<StorageJournal.RecordWriter> records = new ArrayList<>();
+        for (StoredItem stored : items.values()) {
+            records.add(out -> writePut(out, stored));
+        }
+        return records;
+    }
+
+    private static void writePut(DataOutput out, StoredItem stored) throws IOException {
+        out.writeByte(PUT);
+        out.writeInt(stored.id);
+        out.writeInt(stored.ownerId);
+        out.writeUTF(stored.name);
+        out.writeUTF(stored.description);
+        out.writeBoolean(stored.available);
+        out.writeBoolean(stored.request != null);
+        out.writeInt(stored.request == null ? 0 : stored.request);
+        out.writeInt(stored.version == null ? 0 : stored.version);
+        out.writeUTF(stored.updatedAt == null ? "" : stored.updatedAt.toString());
+    }
+
+    private static int[] withId(int[] ids, int id) {
+        int[] current = ids == null ? NO_ITEMS : ids;
+        int position = Arrays.binarySearch(current, id);
+        if (position >= 0) {
+            return current;
+        }
+        int insertAt = -position - 1;
+        int[] result = new int[current.length + 1];
+        System.arraycopy(current, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(current, insertAt, result, insertAt + 1, current.length - insertAt);
+        return result;
+    }
+
+    private static int[] withoutId(int[] ids, int id) {
+        if (ids == null) {
+            return null;
+        }
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        int[] result = new int[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    private static final class StoredItem {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final int ownerId;
+        private final Integer request;
+        private final Integer version;
+        private final LocalDateTime updatedAt;
+        //название и описание разделены переводом строки, чтобы запрос не совпал со стыком двух полей
+        private final String searchKey;
+
+        private StoredItem(Item item) {
+            this(item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()),
+                    item.getOwner().getId(), item.getRequest(), item.getVersion(), item.getUpdatedAt());
+        }
+
+        private StoredItem(int id, String name, String description, boolean available, int ownerId,
+                           Integer request, Integer version, LocalDateTime updatedAt) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+            this.ownerId = ownerId;
+            this.request = request;
+            this.version = version;
+            this.updatedAt = updatedAt;
+            this.searchKey = normalize(name) + "\n" + normalize(description);
+        }
+
+        private Item toItem() {
+            User owner = new User();
+            owner.setId(ownerId);
+            Item item = new Item();
+            item.setId(id);
+            item.setName(name);
+            item.setDescription(description);
+            item.setAvailable(available);
+            item.setOwner(owner);
+            item.setRequest(request);
+            item.setVersion(version);
+            item.setUpdatedAt(updatedAt);
+            return item;
+        }
+
+        //запись PUT журнала, поля в порядке writePut
+        private static StoredItem read(DataInput in) throws IOException {
+            int id = in.readInt();
+            int ownerId = in.readInt();
+            String name = in.readUTF();
+            String description = in.readUTF();
+            boolean available = in.readBoolean();
+            boolean hasRequest = in.readBoolean();
+            int request = in.readInt();
+            int version = in.readInt();
+            String updatedAt = in.readUTF();
+            return new StoredItem(id, name, description, available, ownerId, hasRequest ? request : null, version,
+                    updatedAt.isEmpty() ? null : LocalDateTime.parse(updatedAt));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.model.Item;
 
@@ -7,6 +8,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
+@Profile("!in-memory")
 public class InMemoryItemStorage implements ItemStorage {
 
     private final HashMap<Integer, Item> itemList = new HashMap<>();
@@ -1,9 +0,0 @@
-package ru.practicum.shareit.numerators;
-
-public class UserNumerator {
-    private static int currentUserId;
-
-    public static int getCurrentUserId() {
-        return ++ currentUserId;
-    }
-}
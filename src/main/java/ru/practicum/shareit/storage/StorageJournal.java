@@ -0,0 +1,256 @@
+package ru.practicum.shareit.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал предзаписи одного хранилища в памяти: снимок &lt;name&gt;.snapshot и хвост &lt;name&gt;-&lt;поколение&gt;.log.
+ * Запись в хвост - через отображенный в память участок файла, каждая запись - длина, CRC32 и данные,
+ * поэтому оборванная при сбое запись отбрасывается при чтении. Изменение хранилища и запись о нем
+ * выполняются под одной блокировкой - порядок записей совпадает с порядком изменений.
+ * Каждые snapshotEvery записей состояние хранилища пишется новым снимком со следующим поколением,
+ * после чего старый хвост удаляется; при открытии читается снимок и хвост его поколения.
+ */
+@Slf4j
+public class StorageJournal {
+    private static final int REGION_SIZE = 1 << 20;
+    private static final int HEADER_SIZE = 8;
+
+    private final Path dir;
+    private final String name;
+    //force() после стольких записей; 0 - сброс на диск оставляем системе (и снимку, и закрытию)
+    private final int fsyncEvery;
+    private final int snapshotEvery;
+    private final SnapshotSource snapshotSource;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long position;
+    private int unforced;
+    private int sinceSnapshot;
+
+    private StorageJournal(Path dir, String name, int fsyncEvery, int snapshotEvery, SnapshotSource snapshotSource) {
+        this.dir = dir;
+        this.name = name;
+        this.fsyncEvery = fsyncEvery;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotSource = snapshotSource;
+    }
+
+    //журнал выключен: изменения только применяются
+    public static StorageJournal disabled() {
+        return new StorageJournal(null, null, 0, 0, null);
+    }
+
+    //читает снимок и хвост в replay и открывает хвост на дозапись
+    public static StorageJournal open(Path dir, String name, int fsyncEvery, int snapshotEvery,
+                                      RecordReader replay, SnapshotSource snapshotSource) {
+        StorageJournal journal = new StorageJournal(dir, name, fsyncEvery, snapshotEvery, snapshotSource);
+        try {
+            Files.createDirectories(dir);
+            journal.recover(replay);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать журнал хранилища " + name, e);
+        }
+        return journal;
+    }
+
+    public void write(RecordWriter record, Runnable apply) {
+        if (dir == null) {
+            apply.run();
+            return;
+        }
+        lock.lock();
+        try {
+            apply.run();
+            append(toBytes(record));
+            if (snapshotEvery > 0 && ++sinceSnapshot >= snapshotEvery) {
+                compact();
+            }
+        } catch (IOException e) {
+            //изменение уже в памяти, но не в журнале - после перезапуска его не будет
+            throw new UncheckedIOException("Не удалось записать журнал хранилища " + name, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        if (dir == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (region != null) {
+                region.force();
+                region = null;
+            }
+            //хвост отображенного участка - нули, в файле они не нужны
+            channel.truncate(position);
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Журнал хранилища {} закрыт с ошибкой: {}", name, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover(RecordReader replay) throws IOException {
+        Path snapshot = dir.resolve(name + ".snapshot");
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+                generation = in.readLong();
+                readRecords(in, replay);
+            }
+        }
+        Path logFile = logFile(generation);
+        if (Files.exists(logFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+                position = readRecords(in, replay);
+            }
+        }
+        deleteStaleLogs();
+        channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        //все после последней целой записи (оборванная запись, нули отображенного участка) отрезаем
+        channel.truncate(position);
+        log.info("Хранилище {} восстановлено из журнала: поколение {}, записей в хвосте до смещения {}",
+                name, generation, position);
+    }
+
+    //читает записи до конца, нулевой длины или первой битой записи; возвращает конец последней целой
+    private long readRecords(DataInputStream in, RecordReader replay) throws IOException {
+        long offset = 0;
+        while (true) {
+            byte[] payload;
+            int checksum;
+            try {
+                int length = in.readInt();
+                if (length <= 0) {
+                    return offset;
+                }
+                checksum = in.readInt();
+                payload = in.readNBytes(length);
+                if (payload.length < length) {
+                    throw new EOFException();
+                }
+            } catch (EOFException e) {
+                return offset;
+            }
+            if (checksum != checksum(payload)) {
+                log.warn("Журнал хранилища {}: запись со смещения {} оборвана, дальше не читаю", name, offset);
+                return offset;
+            }
+            replay.read(new DataInputStream(new ByteArrayInputStream(payload)));
+            offset += HEADER_SIZE + payload.length;
+        }
+    }
+
+    private void append(byte[] payload) throws IOException {
+        int size = HEADER_SIZE + payload.length;
+        if (region == null || region.remaining() < size) {
+            if (region != null) {
+                region.force();
+            }
+            region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(REGION_SIZE, size));
+        }
+        region.putInt(payload.length);
+        region.putInt(checksum(payload));
+        region.put(payload);
+        position += size;
+        if (fsyncEvery > 0 && ++unforced >= fsyncEvery) {
+            region.force();
+            unforced = 0;
+        }
+    }
+
+    //снимок пишется во временный файл и подменяет прежний целиком; только потом хвост начинается заново
+    private void compact() throws IOException {
+        long nextGeneration = generation + 1;
+        Path snapshot = dir.resolve(name + ".snapshot");
+        Path tmp = dir.resolve(name + ".snapshot.tmp");
+        int records = 0;
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeLong(nextGeneration);
+            for (RecordWriter record : snapshotSource.records()) {
+                byte[] payload = toBytes(record);
+                out.writeInt(payload.length);
+                out.writeInt(checksum(payload));
+                out.write(payload);
+                records++;
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (region != null) {
+            region.force();
+        }
+        channel.close();
+        Path oldLog = logFile(generation);
+        generation = nextGeneration;
+        channel = FileChannel.open(logFile(generation), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channel.truncate(0);
+        region = null;
+        position = 0;
+        unforced = 0;
+        sinceSnapshot = 0;
+        Files.deleteIfExists(oldLog);
+        log.debug("Журнал хранилища {} сжат в снимок поколения {}, записей {}", name, generation, records);
+    }
+
+    private void deleteStaleLogs() throws IOException {
+        Path current = logFile(generation);
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(dir, name + "-*.log")) {
+            for (Path logFile : logs) {
+                if (!logFile.equals(current)) {
+                    Files.delete(logFile);
+                }
+            }
+        }
+    }
+
+    private Path logFile(long logGeneration) {
+        return dir.resolve(name + "-" + logGeneration + ".log");
+    }
+
+    private static byte[] toBytes(RecordWriter record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            record.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    @FunctionalInterface
+    public interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface RecordReader {
+        void read(DataInput in) throws IOException;
+    }
+
+    //записи, из которых снимок восстанавливает текущее состояние хранилища
+    @FunctionalInterface
+    public interface SnapshotSource {
+        List<RecordWriter> records();
+    }
+}
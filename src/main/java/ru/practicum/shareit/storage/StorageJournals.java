@@ -0,0 +1,35 @@
+package ru.practicum.shareit.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки журналов хранилищ профиля in-memory (shareit.storage.journal.*).
+ * Без каталога журнал выключен и хранилища живут только в памяти.
+ */
+@Component
+@Profile("in-memory")
+public class StorageJournals {
+    private final String dir;
+    private final int fsyncEvery;
+    private final int snapshotEvery;
+
+    public StorageJournals(@Value("${shareit.storage.journal.dir:}") String dir,
+                           @Value("${shareit.storage.journal.fsync-every-records:1}") int fsyncEvery,
+                           @Value("${shareit.storage.journal.snapshot-every-records:10000}") int snapshotEvery) {
+        this.dir = dir;
+        this.fsyncEvery = fsyncEvery;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    public StorageJournal open(String name, StorageJournal.RecordReader replay,
+                               StorageJournal.SnapshotSource snapshotSource) {
+        if (dir.isEmpty()) {
+            return StorageJournal.disabled();
+        }
+        return StorageJournal.open(Path.of(dir), name, fsyncEvery, snapshotEvery, replay, snapshotSource);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.storage;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Потокобезопасная карта с ключами int без упаковки в Integer: ключи разложены по сегментам,
+ * у каждого сегмента своя примитивная хеш-таблица fastutil и своя блокировка чтения-записи,
+ * поэтому запись блокирует только свой сегмент. Значения должны быть неизменяемыми.
+ */
+public class StripedIntMap<V> {
+    private static final int SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public StripedIntMap() {
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    public V get(int key) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.readLock().lock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            segment.lock.readLock().unlock();
+        }
+    }
+
+    public V put(int key, V value) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    public V remove(int key) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    //атомарно заменяет значение ключа результатом функции от текущего (null - нет значения); null в ответе удаляет ключ
+    public V update(int key, UnaryOperator<V> function) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            V value = function.apply(segment.map.get(key));
+            if (value == null) {
+                segment.map.remove(key);
+            } else {
+                segment.map.put(key, value);
+            }
+            return value;
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    //снимок значений: каждый сегмент копируется под своей блокировкой на чтение
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Segment<V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                values.addAll(segment.map.values());
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return values;
+    }
+
+    private Segment<V> segmentFor(int key) {
+        //id идут подряд - перемешиваем биты, чтобы соседние ключи попадали в разные сегменты
+        int hash = key * 0x9E3779B9;
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment<V> {
+        private final Int2ObjectOpenHashMap<V> map = new Int2ObjectOpenHashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+}
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.http.ResourceETags;
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.service.UserServiceImp;
+import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -11,14 +16,25 @@ import java.util.List;
 @RequestMapping(path = "/users")
 public class UserController {
 
-    private final UserServiceImp userService;
+    private final UserService userService;
+    private final ResourceETags resourceETags;
+    private final String cacheControl;
 
-    public UserController(UserServiceImp userService) {
+    public UserController(UserService userService, ResourceETags resourceETags,
+                          @Value("${shareit.http.cache-control.user:no-cache}") String cacheControl) {
         this.userService = userService;
+        this.resourceETags = resourceETags;
+        this.cacheControl = cacheControl;
     }
 
+    //If-None-Match с текущим ETag - 304 без обращения к сервису
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Integer userId) {
+    public UserDto getUserById(@PathVariable Integer userId, WebRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        String eTag = resourceETags.userETag(userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return userService.getUserDtoById(userId);
     }
 
@@ -2,25 +2,43 @@ package ru.practicum.shareit.user.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.config.IdSequences;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "USERS")
 public class User {
+    //id выдаются блоками из последовательности - одно обращение к базе на allocationSize записей
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "USERS_ID_SEQ",
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "ID")
     private Integer id;
     @Column(name = "NAME", nullable = false, length = 50)
     private String name;
     @Column(name = "EMAIL", nullable = false, length = 50, unique = true)
     private String email;
+    //растет при каждом изменении - по ней строится ETag и ловятся одновременные правки
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Integer version;
 
     @Override
     public boolean equals(Object o) {
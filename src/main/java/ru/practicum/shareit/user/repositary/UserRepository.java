@@ -3,10 +3,6 @@ package ru.practicum.shareit.user.repositary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Optional;
-
 public interface UserRepository extends JpaRepository<User, Integer> {
 
-    Optional<User> findUserById(Integer userId);
-
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.ResourceNotFoundException;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Пользователи профиля in-memory: хранилище в памяти вместо базы, id выдает счетчик,
+ * продолженный от наибольшего id в хранилище.
+ */
+@Slf4j
+@Service
+@Profile("in-memory")
+public class InMemoryUserService implements UserService {
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final AtomicInteger lastId;
+
+    public InMemoryUserService(UserStorage userStorage, ItemStorage itemStorage) {
+        this.userStorage = userStorage;
+        this.itemStorage = itemStorage;
+        this.lastId = new AtomicInteger(userStorage.getUserList().stream().mapToInt(User::getId).max().orElse(0));
+    }
+
+    @Override
+    public UserDto getUserDtoById(Integer userId) {
+        return UserMapper.toUserDto(getUserById(userId));
+    }
+
+    @Override
+    public User getUserById(Integer userId) {
+        return userStorage.getUserById(userId).orElseThrow(
+                () -> {
+                    String msg = "Не нашел пользователя с Id = " + userId;
+                    log.warn(msg);
+                    throw new ResourceNotFoundException(msg);
+                }
+        );
+    }
+
+    @Override
+    public List<UserDto> getUserList() {
+        return userStorage.getUserList().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
+    }
+
+    @Override
+    public UserDto createUser(UserDto userDto) {
+        User user = UserMapper.toUser(userDto);
+        //id выдает счетчик, присланный клиентом не используем
+        user.setId(lastId.incrementAndGet());
+        user.setVersion(0);
+        return UserMapper.toUserDto(userStorage.createUser(user));
+    }
+
+    @Override
+    public void deleteUser(int userId) {
+        User user = getUserById(userId);
+        //как внешний ключ ITEMS.OWNER_ID в базе: владельца вещей не удаляем
+        if (!itemStorage.getUsersItems(userId).isEmpty()) {
+            throw new ConflictException("У пользователя с Id = " + userId + " есть вещи");
+        }
+        userStorage.deleteUser(user);
+    }
+
+    @Override
+    public UserDto updateUser(UserDto userDto) {
+        User user = getUserById(userDto.getId());
+        if (userDto.getName() != null) {
+            user.setName(userDto.getName());
+        }
+        if (userDto.getEmail() != null) {
+            user.setEmail(userDto.getEmail());
+        }
+        user.setVersion(user.getVersion() + 1);
+        return UserMapper.toUserDto(userStorage.updateUser(user));
+    }
+}
@@ -1,10 +1,10 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ResourceNotFoundException;
-import ru.practicum.shareit.numerators.UserNumerator;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -16,6 +16,7 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional
 @Service
+@Profile("!in-memory")
 public class UserServiceImp implements UserService {
     private final UserRepository userRepository;
 
@@ -24,13 +25,15 @@ public class UserServiceImp implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserDtoById(Integer userId) {
         return UserMapper.toUserDto(getUserById(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserById(Integer userId) {
-        return userRepository.findUserById(userId).orElseThrow(
+        return userRepository.findById(userId).orElseThrow(
                 () -> {
                     String msg = "Не нашел пользователя с Id = " + userId;
                     log.warn(msg);
@@ -40,6 +43,7 @@ public class UserServiceImp implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getUserList() {
         return userRepository.findAll().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
     }
@@ -47,7 +51,8 @@ public class UserServiceImp implements UserService {
     @Override
     public UserDto createUser(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
-        user.setId(UserNumerator.getCurrentUserId());
+        //id выдает последовательность, присланный клиентом не используем
+        user.setId(null);
         return UserMapper.toUserDto(userRepository.save(user));
 
     }
@@ -62,13 +67,14 @@ public class UserServiceImp implements UserService {
     public UserDto updateUser(UserDto userDto) {
         User oldUser = getUserById(userDto.getId());
         User user = UserMapper.toUser(userDto);
-        if (user.getName() == null) {
-            user.setName(oldUser.getName());
+        //меняем загруженную запись, а не сохраняем новую поверх - так сохраняется ее версия
+        if (user.getName() != null) {
+            oldUser.setName(user.getName());
         }
-        if (user.getEmail() == null) {
-            user.setEmail(oldUser.getEmail());
+        if (user.getEmail() != null) {
+            oldUser.setEmail(user.getEmail());
         }
-        return UserMapper.toUserDto(userRepository.save(user));
+        return UserMapper.toUserDto(userRepository.save(oldUser));
     }
 
 
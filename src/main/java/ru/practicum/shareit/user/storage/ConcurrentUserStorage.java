@@ -0,0 +1,144 @@
+package ru.practicum.shareit.user.storage;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.storage.StorageJournal;
+import ru.practicum.shareit.storage.StorageJournals;
+import ru.practicum.shareit.storage.StripedIntMap;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PreDestroy;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище пользователей в памяти для профиля in-memory: потокобезопасное, с ключами int.
+ * Хранятся и отдаются копии - изменения объектов вызывающим кодом хранилище не задевают.
+ * Индекс email -> id держит уникальность адреса: занятый другим пользователем адрес - ConflictException.
+ * Изменения пишутся в журнал "users" (StorageJournal), при создании хранилище восстанавливается из него.
+ */
+@Component
+@Profile("in-memory")
+public class ConcurrentUserStorage implements UserStorage {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final StripedIntMap<User> users = new StripedIntMap<>();
+    private final ConcurrentHashMap<String, Integer> userIdsByEmail = new ConcurrentHashMap<>();
+    private final StorageJournal journal;
+
+    public ConcurrentUserStorage(StorageJournals journals) {
+        this.journal = journals.open("users", this::replay, this::snapshot);
+    }
+
+    @Override
+    public Optional<User> getUserById(int userId) {
+        return Optional.ofNullable(users.get(userId)).map(ConcurrentUserStorage::copyOf);
+    }
+
+    @Override
+    public List<User> getUserList() {
+        List<User> stored = users.values();
+        stored.sort(Comparator.comparing(User::getId));
+        List<User> userList = new ArrayList<>(stored.size());
+        for (User user : stored) {
+            userList.add(copyOf(user));
+        }
+        return userList;
+    }
+
+    @Override
+    public User createUser(User user) {
+        return updateUser(user);
+    }
+
+    @Override
+    public User updateUser(User user) {
+        User stored = copyOf(user);
+        journal.write(out -> writePut(out, stored), () -> put(stored));
+        return copyOf(stored);
+    }
+
+    @Override
+    public void deleteUser(User user) {
+        int userId = user.getId();
+        journal.write(out -> {
+            out.writeByte(DELETE);
+            out.writeInt(userId);
+        }, () -> remove(userId));
+    }
+
+    @Override
+    public Optional<Integer> getUserIdByEmail(String email) {
+        return Optional.ofNullable(userIdsByEmail.get(email));
+    }
+
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+
+    private void put(User stored) {
+        //сначала адрес: из двух одновременных запросов с одним email пройдет один
+        Integer holder = userIdsByEmail.putIfAbsent(stored.getEmail(), stored.getId());
+        if (holder != null && !holder.equals(stored.getId())) {
+            throw new ConflictException("Адрес " + stored.getEmail() + " уже занят другим пользователем");
+        }
+        User previous = users.put(stored.getId(), stored);
+        if (previous != null && !previous.getEmail().equals(stored.getEmail())) {
+            userIdsByEmail.remove(previous.getEmail(), previous.getId());
+        }
+    }
+
+    private void remove(int userId) {
+        User previous = users.remove(userId);
+        if (previous != null) {
+            userIdsByEmail.remove(previous.getEmail(), previous.getId());
+        }
+    }
+
+    private void replay(DataInput in) throws IOException {
+        if (in.readByte() == DELETE) {
+            remove(in.readInt());
+            return;
+        }
+        User user = new User();
+        user.setId(in.readInt());
+        user.setName(in.readUTF());
+        user.setEmail(in.readUTF());
+        user.setVersion(in.readInt());
+        put(user);
+    }
+
+    private List<StorageJournal.RecordWriter> snapshot() {
+        List<StorageJournal.RecordWriter> records = new ArrayList<>();
+        for (User user : users.values()) {
+            records.add(out -> writePut(out, user));
+        }
+        return records;
+    }
+
+    private static void writePut(DataOutput out, User user) throws IOException {
+        out.writeByte(PUT);
+        out.writeInt(user.getId());
+        out.writeUTF(user.getName());
+        out.writeUTF(user.getEmail());
+        out.writeInt(user.getVersion() == null ? 0 : user.getVersion());
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+}
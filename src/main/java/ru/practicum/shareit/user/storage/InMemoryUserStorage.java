@@ -1,11 +1,13 @@
 package ru.practicum.shareit.user.storage;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.*;
 
 @Component
+@Profile("!in-memory")
 public class InMemoryUserStorage implements UserStorage {
     private final HashMap<Integer, User> userMainMap = new LinkedHashMap<>();
     private final HashMap<String, Integer> userMap = new HashMap<>();
@@ -0,0 +1,10 @@
+-- очередью для ITEM_BOOKING_SUMMARY служит сам журнал: подтверждение вставляется с SUMMARY_PENDING = TRUE,
+-- проход, применивший его к сводке, сбрасывает флаг. Отдельная таблица ITEM_BOOKING_SUMMARY_PENDING больше не нужна
+ALTER TABLE BOOKING_EVENTS ADD COLUMN IF NOT EXISTS SUMMARY_PENDING BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE BOOKING_EVENTS SET SUMMARY_PENDING = TRUE
+WHERE ID IN (SELECT EVENT_ID FROM ITEM_BOOKING_SUMMARY_PENDING);
+
+DROP TABLE IF EXISTS ITEM_BOOKING_SUMMARY_PENDING;
+
+CREATE INDEX IF NOT EXISTS BOOKING_EVENTS_SUMMARY_PENDING_IDX ON BOOKING_EVENTS (SUMMARY_PENDING, ID);
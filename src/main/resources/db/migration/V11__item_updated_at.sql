@@ -0,0 +1,5 @@
+-- время последнего изменения вещи: по нему поисковый индекс каждого экземпляра подбирает правки,
+-- сделанные другими экземплярами (ItemSearchIndex.catchUp)
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ITEMS_UPDATED_AT_IDX ON ITEMS (UPDATED_AT, ID);
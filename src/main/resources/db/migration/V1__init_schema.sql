@@ -1,8 +1,7 @@
---drop table comments;
---drop table bookings;
---DROP TABLE ITEMS;
---DROP TABLE USERS;
---DROP TABLE BOOKING_STATUSES;
+CREATE SEQUENCE IF NOT EXISTS USERS_ID_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS ITEMS_ID_SEQ START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS USERS
 (
     ID INTEGER PRIMARY KEY,
@@ -27,8 +26,7 @@ CREATE TABLE  IF NOT EXISTS BOOKING_STATUSES (
 
 
 CREATE TABLE IF NOT EXISTS BOOKINGS (
-    ID INTEGER PRIMARY KEY auto_increment,
-    --ID INT  GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    ID INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     START_DATE TIMESTAMP NOT NULL,
     END_DATE TIMESTAMP NOT NULL,
     ITEM_ID INTEGER NOT NULL REFERENCES ITEMS(ID),
@@ -37,10 +35,9 @@ CREATE TABLE IF NOT EXISTS BOOKINGS (
 );
 
 CREATE TABLE IF NOT EXISTS COMMENTS(
-    ID INTEGER PRIMARY KEY auto_increment,
-    --ID INT  GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    ID INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     TEXT VARCHAR(50) NOT NULL,
     ITEM_ID INTEGER NOT NULL REFERENCES ITEMS(ID),
     AUTHOR_ID INTEGER NOT NULL REFERENCES USERS(ID),
     CREATED TIMESTAMP DEFAULT NOW()
-);
\ No newline at end of file
+);
@@ -0,0 +1,9 @@
+INSERT INTO BOOKING_STATUSES(NAME, DESCRIPTION)
+SELECT 'WAITING', 'Ожидает подтверждения'
+WHERE NOT EXISTS (SELECT 1 FROM BOOKING_STATUSES WHERE NAME = 'WAITING');
+INSERT INTO BOOKING_STATUSES(NAME, DESCRIPTION)
+SELECT 'APPROVED', 'Подтверждено владельцем'
+WHERE NOT EXISTS (SELECT 1 FROM BOOKING_STATUSES WHERE NAME = 'APPROVED');
+INSERT INTO BOOKING_STATUSES(NAME, DESCRIPTION)
+SELECT 'REJECTED', 'Отклонено владельцем'
+WHERE NOT EXISTS (SELECT 1 FROM BOOKING_STATUSES WHERE NAME = 'REJECTED');
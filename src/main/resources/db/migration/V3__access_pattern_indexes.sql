@@ -0,0 +1,16 @@
+-- вещи владельца по порядку id (GET /items, потоковая выдача), join бронирований владельца
+CREATE INDEX IF NOT EXISTS ITEMS_OWNER_IDX ON ITEMS (OWNER_ID, ID);
+
+-- бронирования пользователя: все и по статусу, keyset по (START_DATE, ID)
+CREATE INDEX IF NOT EXISTS BOOKINGS_BOOKER_START_IDX ON BOOKINGS (BOOKER_ID, START_DATE DESC, ID DESC);
+CREATE INDEX IF NOT EXISTS BOOKINGS_BOOKER_STATUS_START_IDX ON BOOKINGS (BOOKER_ID, STATUS, START_DATE DESC, ID DESC);
+
+-- бронирования вещей владельца и проверка пересечений при создании бронирования
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_START_IDX ON BOOKINGS (ITEM_ID, START_DATE DESC, ID DESC);
+
+-- последнее/следующее подтвержденное бронирование вещи и проверка завершенной аренды перед отзывом
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_STATUS_START_IDX ON BOOKINGS (ITEM_ID, STATUS, START_DATE);
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_STATUS_END_IDX ON BOOKINGS (ITEM_ID, STATUS, END_DATE);
+
+-- отзывы к вещам, новые первыми
+CREATE INDEX IF NOT EXISTS COMMENTS_ITEM_CREATED_IDX ON COMMENTS (ITEM_ID, CREATED DESC);
@@ -0,0 +1,25 @@
+-- последнее и следующее подтвержденное бронирование каждой вещи, поддерживается при подтверждении бронирования;
+-- когда наступает NEXT_START, следующее становится последним (плановый пересчет по BOOKING_SUMMARY_NEXT_START_IDX)
+CREATE TABLE IF NOT EXISTS ITEM_BOOKING_SUMMARY (
+    ITEM_ID INTEGER PRIMARY KEY REFERENCES ITEMS(ID),
+    LAST_BOOKING_ID INTEGER REFERENCES BOOKINGS(ID),
+    LAST_START TIMESTAMP,
+    NEXT_BOOKING_ID INTEGER REFERENCES BOOKINGS(ID),
+    NEXT_START TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS BOOKING_SUMMARY_NEXT_START_IDX ON ITEM_BOOKING_SUMMARY (NEXT_START);
+
+INSERT INTO ITEM_BOOKING_SUMMARY (ITEM_ID, LAST_BOOKING_ID, LAST_START, NEXT_BOOKING_ID, NEXT_START)
+SELECT I.ID,
+       (SELECT B.ID FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS = 'APPROVED'
+          AND B.START_DATE < CURRENT_TIMESTAMP ORDER BY B.START_DATE DESC LIMIT 1),
+       (SELECT MAX(B.START_DATE) FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS = 'APPROVED'
+          AND B.START_DATE < CURRENT_TIMESTAMP),
+       (SELECT B.ID FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS = 'APPROVED'
+          AND B.START_DATE > CURRENT_TIMESTAMP ORDER BY B.START_DATE LIMIT 1),
+       (SELECT MIN(B.START_DATE) FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS = 'APPROVED'
+          AND B.START_DATE > CURRENT_TIMESTAMP)
+FROM ITEMS I
+WHERE EXISTS (SELECT 1 FROM BOOKINGS B WHERE B.ITEM_ID = I.ID AND B.STATUS = 'APPROVED')
+  AND NOT EXISTS (SELECT 1 FROM ITEM_BOOKING_SUMMARY S WHERE S.ITEM_ID = I.ID);
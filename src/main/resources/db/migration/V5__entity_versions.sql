@@ -0,0 +1,3 @@
+-- версии строк для оптимистической блокировки и ETag (GET /users/{id}, GET /items/{id})
+ALTER TABLE USERS ADD COLUMN IF NOT EXISTS VERSION INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS VERSION INTEGER DEFAULT 0 NOT NULL;
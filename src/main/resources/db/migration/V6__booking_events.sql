@@ -0,0 +1,20 @@
+-- журнал событий бронирований: строки только добавляются; ID из последовательности блоками по 50,
+-- чтобы вставки событий шли пачками JDBC
+CREATE SEQUENCE IF NOT EXISTS BOOKING_EVENTS_ID_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS BOOKING_EVENTS (
+    ID BIGINT PRIMARY KEY,
+    BOOKING_ID INTEGER NOT NULL REFERENCES BOOKINGS(ID),
+    ITEM_ID INTEGER NOT NULL REFERENCES ITEMS(ID),
+    TYPE VARCHAR(20) NOT NULL,
+    CREATED TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS BOOKING_EVENTS_BOOKING_IDX ON BOOKING_EVENTS (BOOKING_ID, ID);
+
+-- подтверждения, которые еще не применены к ITEM_BOOKING_SUMMARY: строка пишется в транзакции события
+-- и удаляется в транзакции, применившей его, поэтому событие, закоммиченное позже соседних, не пропускается
+CREATE TABLE IF NOT EXISTS ITEM_BOOKING_SUMMARY_PENDING (
+    EVENT_ID BIGINT PRIMARY KEY REFERENCES BOOKING_EVENTS(ID),
+    BOOKING_ID INTEGER NOT NULL
+);
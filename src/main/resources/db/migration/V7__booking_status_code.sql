@@ -0,0 +1,24 @@
+-- статус бронирования числом вместо VARCHAR со ссылкой на BOOKING_STATUSES:
+-- 1 - WAITING, 2 - APPROVED, 3 - REJECTED (ru.practicum.shareit.BookingStatus)
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS STATUS_CODE SMALLINT;
+
+UPDATE BOOKINGS SET STATUS_CODE = CASE STATUS
+    WHEN 'WAITING' THEN 1
+    WHEN 'APPROVED' THEN 2
+    WHEN 'REJECTED' THEN 3
+END;
+
+ALTER TABLE BOOKINGS ALTER COLUMN STATUS_CODE SET NOT NULL;
+ALTER TABLE BOOKINGS ADD CONSTRAINT BOOKINGS_STATUS_CODE_CHECK CHECK (STATUS_CODE IN (1, 2, 3));
+
+-- индексы со STATUS мешают удалить колонку - пересоздаем их по STATUS_CODE
+DROP INDEX IF EXISTS BOOKINGS_BOOKER_STATUS_START_IDX;
+DROP INDEX IF EXISTS BOOKINGS_ITEM_STATUS_START_IDX;
+DROP INDEX IF EXISTS BOOKINGS_ITEM_STATUS_END_IDX;
+
+ALTER TABLE BOOKINGS DROP COLUMN STATUS;
+DROP TABLE IF EXISTS BOOKING_STATUSES;
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_BOOKER_STATUS_START_IDX ON BOOKINGS (BOOKER_ID, STATUS_CODE, START_DATE DESC, ID DESC);
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_STATUS_START_IDX ON BOOKINGS (ITEM_ID, STATUS_CODE, START_DATE);
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_STATUS_END_IDX ON BOOKINGS (ITEM_ID, STATUS_CODE, END_DATE);
@@ -0,0 +1,11 @@
+-- владелец вещи прямо в бронировании: список GET /bookings/owner фильтруется и упорядочивается по одному индексу,
+-- как список арендатора, а не через соединение с ITEMS. Владелец вещи не меняется, поэтому копия не расходится
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS OWNER_ID INTEGER;
+
+UPDATE BOOKINGS SET OWNER_ID = (SELECT I.OWNER_ID FROM ITEMS I WHERE I.ID = BOOKINGS.ITEM_ID);
+
+ALTER TABLE BOOKINGS ALTER COLUMN OWNER_ID SET NOT NULL;
+ALTER TABLE BOOKINGS ADD CONSTRAINT BOOKINGS_OWNER_FK FOREIGN KEY (OWNER_ID) REFERENCES USERS(ID);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_OWNER_START_IDX ON BOOKINGS (OWNER_ID, START_DATE DESC, ID DESC);
+CREATE INDEX IF NOT EXISTS BOOKINGS_OWNER_STATUS_START_IDX ON BOOKINGS (OWNER_ID, STATUS_CODE, START_DATE DESC, ID DESC);
@@ -0,0 +1,129 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.config.SqlStatementCapture;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//число SQL-запросов на эндпоинт не зависит от того, сколько вещей, бронирований и отзывов попадает в ответ
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int LARGE_ITEMS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+
+    private ShareItFixture fixture;
+    private int smallOwner;
+    private int largeOwner;
+    private int smallBooker;
+    private int largeBooker;
+    private int smallItem;
+    private int largeItem;
+
+    @BeforeEach
+    void seed() {
+        fixture = new ShareItFixture(jdbcTemplate);
+        smallOwner = fixture.user("Владелец одной вещи");
+        largeOwner = fixture.user("Владелец многих вещей");
+        smallBooker = fixture.user("Арендатор одной вещи");
+        largeBooker = fixture.user("Арендатор многих вещей");
+        smallItem = addItem("Насос", smallOwner, smallBooker);
+        largeItem = addItem("Фонарь", largeOwner, largeBooker);
+        for (int k = 1; k < LARGE_ITEMS; k++) {
+            addItem("Фонарь", largeOwner, largeBooker);
+        }
+        itemSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixture.cleanup();
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void ownerItemsCostTheSameForOneAndManyItems() {
+        assertEquals(statements(get("/items").header(USER_HEADER, smallOwner)),
+                statements(get("/items").header(USER_HEADER, largeOwner)));
+    }
+
+    @Test
+    void itemSearchCostsTheSameForOneAndManyMatches() {
+        assertEquals(statements(get("/items/search").param("text", "насос")),
+                statements(get("/items/search").param("text", "фонарь")));
+    }
+
+    @Test
+    void bookerBookingsCostTheSameForOneAndManyBookings() {
+        assertEquals(statements(get("/bookings").header(USER_HEADER, smallBooker)),
+                statements(get("/bookings").header(USER_HEADER, largeBooker)));
+    }
+
+    @Test
+    void ownerBookingsCostTheSameForOneAndManyBookings() {
+        assertEquals(statements(get("/bookings/owner").header(USER_HEADER, smallOwner)),
+                statements(get("/bookings/owner").header(USER_HEADER, largeOwner)));
+    }
+
+    @Test
+    void itemCardCostsTheSameWithOneAndManyComments() {
+        fixture.comment(largeItem, largeBooker, "Еще отзыв", LocalDateTime.now().minusHours(1));
+        assertEquals(statements(get("/items/" + smallItem).header(USER_HEADER, smallOwner)),
+                statements(get("/items/" + largeItem).header(USER_HEADER, largeOwner)));
+    }
+
+    //у вещи прошлое и будущее подтвержденные бронирования и отзыв
+    private int addItem(String name, int ownerId, int bookerId) {
+        int itemId = fixture.item(ownerId, name, "Вещь владельца " + ownerId);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        for (LocalDateTime start : new LocalDateTime[]{now.minusDays(3), now.plusDays(3)}) {
+            fixture.booking(itemId, bookerId, start, start.plusDays(1), BookingStatus.APPROVED);
+        }
+        fixture.comment(itemId, bookerId, "Отзыв о " + itemId, now.minusDays(1));
+        summaryService.recompute(itemId);
+        return itemId;
+    }
+
+    //кэш второго уровня сбрасывается, чтобы оба запроса шли по одинаково холодному кэшу
+    private int statements(MockHttpServletRequestBuilder request) {
+        entityManagerFactory.getCache().evictAll();
+        List<String> sql = SqlStatementCapture.capture(() -> {
+            try {
+                mockMvc.perform(request).andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertFalse(sql.isEmpty(), "Запрос не дошел до базы");
+        return sql.size();
+    }
+}
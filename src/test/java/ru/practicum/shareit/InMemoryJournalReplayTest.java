@@ -0,0 +1,102 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ConcurrentItemStorage;
+import ru.practicum.shareit.storage.StorageJournals;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.ConcurrentUserStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//журнал пишется до старта контекста, как при прошлом запуске; хранилища контекста восстанавливаются из него
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:in-memory-journal;MODE=PostgreSQL")
+@ActiveProfiles({"test", "in-memory"})
+@AutoConfigureMockMvc
+class InMemoryJournalReplayTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Path JOURNAL_DIR;
+
+    static {
+        try {
+            JOURNAL_DIR = Files.createTempDirectory("shareit-journal");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        StorageJournals journals = new StorageJournals(JOURNAL_DIR.toString(), 1, 0);
+        ConcurrentUserStorage users = new ConcurrentUserStorage(journals);
+        ConcurrentItemStorage items = new ConcurrentItemStorage(journals);
+        User owner = new User();
+        owner.setId(7);
+        owner.setName("Владелец");
+        owner.setEmail("journal@shareit.ru");
+        owner.setVersion(0);
+        users.createUser(owner);
+        Item item = new Item();
+        item.setId(12);
+        item.setOwner(owner);
+        item.setName("Байдарка");
+        item.setDescription("Двухместная");
+        item.setAvailable(true);
+        item.setVersion(0);
+        item.setUpdatedAt(LocalDateTime.now());
+        items.createItem(item);
+        users.close();
+        items.close();
+    }
+
+    @DynamicPropertySource
+    static void journalDir(DynamicPropertyRegistry registry) {
+        registry.add("shareit.storage.journal.dir", JOURNAL_DIR::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    //другой тест класса может добавить свои записи - проверяем только восстановленные
+    @Test
+    void storagesAreRestoredOnStartup() throws Exception {
+        mockMvc.perform(get("/users/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("journal@shareit.ru"));
+        mockMvc.perform(get("/items").header(USER_HEADER, 7))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(12)));
+        mockMvc.perform(get("/items/search").param("text", "байдар"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(12)));
+    }
+
+    //счетчики id продолжаются от восстановленных записей
+    @Test
+    void newIdsFollowRestoredOnes() throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Новый\", \"email\": \"new@shareit.ru\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(8));
+        mockMvc.perform(post("/items").header(USER_HEADER, 7)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Весло\", \"description\": \"Легкое\", \"available\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(13));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.item.service.InMemoryItemService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ConcurrentItemStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.service.InMemoryUserService;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.ConcurrentUserStorage;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//профиль in-memory: пользователи и вещи идут через хранилища в памяти, в базу ничего не пишется
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:in-memory-profile;MODE=PostgreSQL")
+@ActiveProfiles({"test", "in-memory"})
+@AutoConfigureMockMvc
+class InMemoryProfileTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void profileSelectsInMemoryStoragesAndServices() {
+        assertTrue(userStorage instanceof ConcurrentUserStorage);
+        assertTrue(itemStorage instanceof ConcurrentItemStorage);
+        assertTrue(userService instanceof InMemoryUserService);
+        assertTrue(itemService instanceof InMemoryItemService);
+    }
+
+    @Test
+    void usersAndItemsAreServedFromMemory() throws Exception {
+        int owner = id(postJson("/users", Map.of("name", "Владелец", "email", "owner@shareit.ru"))
+                .andExpect(status().isOk()));
+        int item = id(postJson("/items", owner, Map.of("name", "Байдарка", "description", "Двухместная",
+                "available", true))
+                .andExpect(status().isOk()));
+
+        mockMvc.perform(get("/items").header(USER_HEADER, owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(item)));
+        mockMvc.perform(get("/items/search").param("text", "БАЙДАР"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(item)));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM USERS", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ITEMS", Integer.class));
+    }
+
+    @Test
+    void duplicateEmailIsConflict() throws Exception {
+        postJson("/users", Map.of("name", "Первый", "email", "same@shareit.ru")).andExpect(status().isOk());
+        postJson("/users", Map.of("name", "Второй", "email", "same@shareit.ru")).andExpect(status().isConflict());
+    }
+
+    //бронирования ссылаются на строки ITEMS, которых в этом профиле нет
+    @Test
+    void bookingsAreRejected() throws Exception {
+        int owner = id(postJson("/users", Map.of("name", "Хозяин", "email", "host@shareit.ru")));
+        int item = id(postJson("/items", owner, Map.of("name", "Палатка", "description", "Трехместная",
+                "available", true)));
+
+        postJson("/bookings", owner, Map.of("itemId", item, "start", "2100-01-01T10:00:00",
+                "end", "2100-01-02T10:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions postJson(String path, Object body) throws Exception {
+        return mockMvc.perform(post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private ResultActions postJson(String path, int userId, Object body) throws Exception {
+        return mockMvc.perform(post(path)
+                .header(USER_HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private int id(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString()).get("id").asInt();
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Тестовые данные, записанные напрямую через JDBC, мимо сервисов (без событий, индекса поиска и кэша).
+ * id пользователей и вещей берутся из тех же последовательностей, что у Hibernate, поэтому не пересекаются
+ * ни с его id, ни с данными других тестов. cleanup() удаляет созданных пользователей и все, что на них ссылается,
+ * в том числе записи, созданные сервисами во время теста.
+ */
+public class ShareItFixture {
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Integer> userIds = new ArrayList<>();
+
+    public ShareItFixture(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int user(String name) {
+        int id = nextId("USERS_ID_SEQ");
+        jdbcTemplate.update("INSERT INTO USERS (ID, NAME, EMAIL) VALUES (?, ?, ?)", id, name, "user" + id + "@shareit.ru");
+        userIds.add(id);
+        return id;
+    }
+
+    public int item(int ownerId, String name, String description) {
+        int id = nextId("ITEMS_ID_SEQ");
+        jdbcTemplate.update("INSERT INTO ITEMS (ID, NAME, DESCRIPTION, IS_AVIALABLE, OWNER_ID) VALUES (?, ?, ?, ?, ?)",
+                id, name, description, true, ownerId);
+        return id;
+    }
+
+    public int booking(int itemId, int bookerId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return insert("INSERT INTO BOOKINGS (START_DATE, END_DATE, ITEM_ID, BOOKER_ID, STATUS_CODE, OWNER_ID) " +
+                        "VALUES (?, ?, ?, ?, ?, (SELECT OWNER_ID FROM ITEMS WHERE ID = ?))",
+                Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId, status.getCode(), itemId);
+    }
+
+    public int comment(int itemId, int authorId, String text, LocalDateTime created) {
+        return insert("INSERT INTO COMMENTS (TEXT, ITEM_ID, AUTHOR_ID, CREATED) VALUES (?, ?, ?, ?)",
+                text, itemId, authorId, Timestamp.valueOf(created));
+    }
+
+    //сводка, в которой бронирование все еще числится следующим
+    public void nextBookingSummary(int itemId, int bookingId, LocalDateTime start) {
+        jdbcTemplate.update("INSERT INTO ITEM_BOOKING_SUMMARY (ITEM_ID, NEXT_BOOKING_ID, NEXT_START) VALUES (?, ?, ?)",
+                itemId, bookingId, Timestamp.valueOf(start));
+    }
+
+    //одной транзакцией и под блокировкой строк вещей: сводку пишут под той же блокировкой,
+    //поэтому фоновый пересчет не вставит строку между удалениями
+    public void cleanup() {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String users = userIds.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        String items = "SELECT ID FROM ITEMS WHERE OWNER_ID IN (" + users + ")";
+        String bookings = "SELECT ID FROM BOOKINGS WHERE BOOKER_ID IN (" + users + ") OR ITEM_ID IN (" + items + ")";
+        List<String> statements = List.of(
+                items + " FOR UPDATE",
+                "DELETE FROM ITEM_BOOKING_SUMMARY WHERE ITEM_ID IN (" + items + ") " +
+                        "OR LAST_BOOKING_ID IN (" + bookings + ") OR NEXT_BOOKING_ID IN (" + bookings + ")",
+                "DELETE FROM BOOKING_EVENTS WHERE BOOKING_ID IN (" + bookings + ") OR ITEM_ID IN (" + items + ")",
+                "DELETE FROM COMMENTS WHERE AUTHOR_ID IN (" + users + ") OR ITEM_ID IN (" + items + ")",
+                "DELETE FROM BOOKINGS WHERE ID IN (" + bookings + ")",
+                "DELETE FROM ITEMS WHERE OWNER_ID IN (" + users + ")",
+                "DELETE FROM USERS WHERE ID IN (" + users + ")");
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : statements) {
+                    statement.execute(sql);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+        userIds.clear();
+    }
+
+    private int nextId(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Integer.class);
+    }
+
+    private int insert(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[]{"ID"});
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().intValue();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.ShareItFixture;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingApprovalsTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingService bookingService;
+
+    private ShareItFixture fixture;
+    private int owner;
+    private int booking;
+
+    @BeforeEach
+    void seed() {
+        fixture = new ShareItFixture(jdbcTemplate);
+        owner = fixture.user("Владелец");
+        int booker = fixture.user("Арендатор");
+        int item = fixture.item(owner, "Байдарка", "Двухместная");
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusDays(1);
+        booking = fixture.booking(item, booker, start, start.plusDays(1), BookingStatus.WAITING);
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixture.cleanup();
+    }
+
+    //пустой пакет не доходит до запроса с IN ()
+    @Test
+    void emptyBatchReturnsNoResults() {
+        assertEquals(List.of(), bookingService.updateBookings(owner, List.of()));
+    }
+
+    @Test
+    void invalidBatchesAreRejected() throws Exception {
+        approve("[]").andExpect(status().isBadRequest());
+        approve("[{\"approved\": true}]").andExpect(status().isBadRequest());
+        approve(IntStream.range(0, 101)
+                .mapToObj(k -> "{\"bookingId\": " + booking + ", \"approved\": true}")
+                .collect(Collectors.joining(", ", "[", "]")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchApprovesBooking() throws Exception {
+        approve("[{\"bookingId\": " + booking + ", \"approved\": true}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"));
+    }
+
+    private ResultActions approve(String body) throws Exception {
+        return mockMvc.perform(patch("/bookings/approvals").header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.ShareItFixture;
+import ru.practicum.shareit.booking.dto.InputBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.BookingOverlaps;
+import ru.practicum.shareit.exceptions.ResourceNotFoundException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BookingOverlapTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(10);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingService bookingService;
+
+    private ShareItFixture fixture;
+    private int booker;
+    private int item;
+    private int covered;
+
+    //длинное бронирование целиком накрывает короткое - такие данные могла оставить прежняя проверка,
+    //их отклоняет миграция V8
+    @BeforeEach
+    void seed() {
+        fixture = new ShareItFixture(jdbcTemplate);
+        int owner = fixture.user("Владелец");
+        booker = fixture.user("Арендатор");
+        item = fixture.item(owner, "Палатка", "Трехместная");
+        fixture.booking(item, booker, BASE, BASE.plusDays(10), BookingStatus.APPROVED);
+        covered = fixture.booking(item, booker, BASE.plusDays(1), BASE.plusDays(2), BookingStatus.APPROVED);
+        jdbcTemplate.execute((ConnectionCallback<Integer>) BookingOverlaps::rejectOverlapping);
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixture.cleanup();
+    }
+
+    @Test
+    void legacyOverlapIsRejected() {
+        assertEquals((int) BookingStatus.REJECTED.getCode(), jdbcTemplate.queryForObject(
+                "SELECT STATUS_CODE FROM BOOKINGS WHERE ID = ?", Integer.class, covered));
+    }
+
+    //без отклоненного короткого последним до окончания нового начинается накрывающее - оно и находится
+    @Test
+    void bookingInsideLongBookingIsRejected() {
+        assertThrows(ResourceNotFoundException.class, () -> bookingService.createBooking(
+                booking(BASE.plusDays(5), BASE.plusDays(6))));
+    }
+
+    @Test
+    void bookingAfterAllBookingsIsAccepted() {
+        assertNotNull(bookingService.createBooking(booking(BASE.plusDays(10), BASE.plusDays(11))).getId());
+    }
+
+    private InputBookingDto booking(LocalDateTime start, LocalDateTime end) {
+        InputBookingDto dto = new InputBookingDto();
+        dto.setStart(start);
+        dto.setEnd(end);
+        dto.setItemId(item);
+        dto.setBookerId(booker);
+        return dto;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.ShareItFixture;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingPagingTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ShareItFixture fixture;
+    private int owner;
+    private int booker;
+    private int item;
+
+    @BeforeEach
+    void seed() {
+        fixture = new ShareItFixture(jdbcTemplate);
+        owner = fixture.user("Владелец");
+        booker = fixture.user("Арендатор");
+        item = fixture.item(owner, "Лодка", "Надувная");
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusDays(1);
+        for (int k = 0; k < BOOKINGS; k++) {
+            LocalDateTime start = base.plusDays(2L * k);
+            fixture.booking(item, booker, start, start.plusDays(1), BookingStatus.WAITING);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixture.cleanup();
+    }
+
+    //from не кратно size: страница начинается ровно с записи from, а не с начала страницы from / size
+    @Test
+    void fromIsAnOffsetNotAPageNumber() throws Exception {
+        List<Integer> ids = bookingIdsByStartDesc();
+        mockMvc.perform(get("/bookings").header(USER_HEADER, booker).param("from", "3").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(ids.get(3), ids.get(4))));
+    }
+
+    @Test
+    void cursorIsRejectedForAnotherStateOrSide() throws Exception {
+        String cursor = mockMvc.perform(get("/bookings").header(USER_HEADER, booker).param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/bookings").header(USER_HEADER, booker).param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(bookingIdsByStartDesc().get(2), bookingIdsByStartDesc().get(3))));
+        mockMvc.perform(get("/bookings").header(USER_HEADER, booker).param("state", "FUTURE").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bookings/owner").header(USER_HEADER, owner).param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Integer> bookingIdsByStartDesc() {
+        return jdbcTemplate.queryForList("SELECT ID FROM BOOKINGS WHERE ITEM_ID = ? ORDER BY START_DATE DESC, ID DESC",
+                Integer.class, item);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.ShareItFixture;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemBookingSummaryProjectorTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemBookingSummaryProjector projector;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private ShareItFixture fixture;
+
+    @BeforeEach
+    void createFixture() {
+        fixture = new ShareItFixture(jdbcTemplate);
+    }
+
+    //сводку могут еще писать проходы, запущенные подтверждениями теста - доводим их до конца перед удалением данных
+    @AfterEach
+    void cleanup() {
+        projector.catchUp();
+        fixture.cleanup();
+    }
+
+    //подтверждение получает id события раньше соседнего, а коммитится позже, чем соседнее уже применено
+    @Test
+    void lateCommittedApprovalIsProjected() throws Exception {
+        int owner = fixture.user("Владелец");
+        int booker = fixture.user("Арендатор");
+        int lateItem = fixture.item(owner, "Поздняя", "Подтверждение коммитится последним");
+        int earlyItem = fixture.item(owner, "Ранняя", "Подтверждение коммитится первым");
+        int lateBooking = addWaitingBooking(lateItem, booker);
+        int earlyBooking = addWaitingBooking(earlyItem, booker);
+
+        CountDownLatch approved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread late = new Thread(() -> {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    bookingService.updateBooking(owner, lateBooking, true);
+                    approved.countDown();
+                    awaitQuietly(release);
+                });
+            } catch (Throwable e) {
+                failure.set(e);
+            } finally {
+                approved.countDown();
+            }
+        });
+        late.start();
+        assertTrue(approved.await(10, TimeUnit.SECONDS));
+
+        bookingService.updateBooking(owner, earlyBooking, true);
+        projector.catchUp();
+        assertEquals(earlyBooking, summaryRepository.findById(earlyItem).orElseThrow().getNextBookingId());
+        assertNull(summaryRepository.findById(lateItem).map(ItemBookingSummary::getNextBookingId).orElse(null));
+
+        release.countDown();
+        late.join(TimeUnit.SECONDS.toMillis(10));
+        assertNull(failure.get());
+        projector.catchUp();
+
+        assertEquals(lateBooking, summaryRepository.findById(lateItem).orElseThrow().getNextBookingId());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOKING_EVENTS " +
+                "WHERE BOOKING_ID IN (?, ?) AND SUMMARY_PENDING", Integer.class, lateBooking, earlyBooking));
+    }
+
+    private int addWaitingBooking(int itemId, int bookerId) {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusDays(2);
+        return fixture.booking(itemId, bookerId, start, start.plusDays(1), BookingStatus.WAITING);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
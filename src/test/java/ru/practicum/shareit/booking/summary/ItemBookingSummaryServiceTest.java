@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.BookingStatus;
+import ru.practicum.shareit.ShareItFixture;
+import ru.practicum.shareit.item.repositary.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemBookingSummaryServiceTest {
+    private static final long WAIT_MILLIS = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+
+    private ShareItFixture fixture;
+
+    @BeforeEach
+    void createFixture() {
+        fixture = new ShareItFixture(jdbcTemplate);
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixture.cleanup();
+    }
+
+    //пока строка второй вещи заблокирована, пересчет первой уже закоммичен - проход не держит одну транзакцию
+    @Test
+    void rollForwardCommitsEachItemSeparately() throws Exception {
+        int owner = fixture.user("Владелец");
+        int booker = fixture.user("Арендатор");
+        int firstItem = fixture.item(owner, "Первая", "Пересчитывается первой");
+        int lockedItem = fixture.item(owner, "Вторая", "Заблокирована тестом");
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int firstBooking = addStartedNextBooking(firstItem, booker, now.minusHours(2));
+        int lockedBooking = addStartedNextBooking(lockedItem, booker, now.minusHours(1));
+
+        Thread roll = new Thread(() -> {
+            try {
+                summaryService.rollForward();
+            } catch (RuntimeException e) {
+                //вторая вещь может не дождаться блокировки - это не мешает проверке первой
+            }
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemRepository.lockItemById(lockedItem);
+            roll.start();
+            assertTrue(awaitLastBooking(firstItem, firstBooking));
+        });
+        roll.join(WAIT_MILLIS);
+
+        summaryService.rollForward();
+        assertTrue(awaitLastBooking(lockedItem, lockedBooking));
+        assertNull(jdbcTemplate.queryForObject("SELECT NEXT_BOOKING_ID FROM ITEM_BOOKING_SUMMARY WHERE ITEM_ID = ?",
+                Integer.class, lockedItem));
+    }
+
+    //подтвержденное бронирование уже началось, а в сводке оно все еще следующее
+    private int addStartedNextBooking(int itemId, int bookerId, LocalDateTime start) {
+        int bookingId = fixture.booking(itemId, bookerId, start, start.plusDays(1), BookingStatus.APPROVED);
+        fixture.nextBookingSummary(itemId, bookingId, start);
+        return bookingId;
+    }
+
+    private boolean awaitLastBooking(int itemId, int bookingId) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        do {
+            Integer last = jdbcTemplate.queryForObject(
+                    "SELECT LAST_BOOKING_ID FROM ITEM_BOOKING_SUMMARY WHERE ITEM_ID = ?", Integer.class, itemId);
+            if (Integer.valueOf(bookingId).equals(last)) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        } while (System.currentTimeMillis() < deadline);
+        return false;
+    }
+}
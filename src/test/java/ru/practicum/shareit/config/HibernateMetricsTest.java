@@ -0,0 +1,31 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HibernateMetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void hibernateStatementsAreExposed() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/hibernate.statements"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("hibernate.statements"));
+    }
+
+    @Test
+    void secondLevelCacheRequestsAreExposed() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/hibernate.second.level.cache.requests"))
+                .andExpect(status().isOk());
+    }
+}
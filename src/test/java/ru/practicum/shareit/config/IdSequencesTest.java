@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//своя база и свой контекст: у Hibernate еще нет выданного блока id, первый же createUser читает последовательность.
+//Контекст не закрывается через @DirtiesContext - кэш второго уровня (JCache) общий для всех контекстов в JVM
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:id-sequences;MODE=PostgreSQL")
+class IdSequencesTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void newUserIdFollowsExplicitlyInsertedIds() {
+        for (int id = 10001; id <= 10003; id++) {
+            jdbcTemplate.update("INSERT INTO USERS (ID, NAME, EMAIL) VALUES (?, ?, ?)",
+                    id, "Пользователь " + id, "seq" + id + "@shareit.ru");
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            IdSequences.advancePastMaxId(connection);
+            return null;
+        });
+
+        UserDto user = new UserDto();
+        user.setName("Новый");
+        user.setEmail("new-after-seq@shareit.ru");
+
+        assertEquals(10004, userService.createUser(user).getId());
+    }
+
+    //шаг последовательностей в базе должен совпадать с allocationSize, иначе блоки id Hibernate пересекутся
+    @Test
+    void sequenceIncrementMatchesAllocationSize() {
+        assertEquals(List.of((long) IdSequences.ALLOCATION_SIZE, (long) IdSequences.ALLOCATION_SIZE),
+                jdbcTemplate.queryForList("SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES " +
+                        "WHERE SEQUENCE_NAME IN ('USERS_ID_SEQ', 'ITEMS_ID_SEQ')", Long.class));
+    }
+}
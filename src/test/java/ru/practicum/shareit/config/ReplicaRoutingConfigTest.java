@@ -0,0 +1,65 @@
+package ru.practicum.shareit.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//основная база и реплика - две разные H2; реплика ничего не получает от основной, поэтому видно, откуда читали.
+//Схема реплики создается до старта контекста: при старте уже идут чтения в транзакциях readOnly
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL",
+        "shareit.datasource.replica.jdbc-url=" + ReplicaRoutingConfigTest.REPLICA_URL,
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test"})
+class ReplicaRoutingConfigTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    static {
+        Flyway.configure().dataSource(REPLICA_URL, "test", "test").load().migrate();
+    }
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    void readOnlyTransactionsReadFromReplicaAndWritesGoToPrimary() {
+        new JdbcTemplate(replicaDataSource).update("INSERT INTO USERS (ID, NAME, EMAIL) VALUES (?, ?, ?)",
+                20001, "Реплика", "replica@shareit.ru");
+        //id нового пользователя не должны совпасть с id других контекстов: кэш второго уровня общий для JVM
+        jdbcTemplate.execute("ALTER SEQUENCE USERS_ID_SEQ RESTART WITH 30050");
+
+        assertEquals(List.of("Реплика"), userNames(userService.getUserList()));
+
+        UserDto user = new UserDto();
+        user.setName("Основная");
+        user.setEmail("primary@shareit.ru");
+        int id = userService.createUser(user).getId();
+
+        assertEquals(List.of("Основная"), new JdbcTemplate(primaryDataSource)
+                .queryForList("SELECT NAME FROM USERS WHERE ID = ?", String.class, id));
+        assertEquals(List.of("Реплика"), userNames(userService.getUserList()));
+    }
+
+    private static List<String> userNames(List<UserDto> users) {
+        return users.stream().map(UserDto::getName).collect(Collectors.toList());
+    }
+}
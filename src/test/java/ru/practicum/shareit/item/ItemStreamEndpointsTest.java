@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.ShareItFixture;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//порция по умолчанию - 100 вещей, у владельца их больше, поэтому читается и вторая порция
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemStreamEndpointsTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 150;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ShareItFixture fixture;
+    private int owner;
+    private List<Integer> itemIds;
+
+    @BeforeEach
+    void seed() {
+        fixture = new ShareItFixture(jdbcTemplate);
+        owner = fixture.user("Владелец");
+        itemIds = IntStream.range(0, ITEMS)
+                .mapToObj(k -> fixture.item(owner, "Вещь " + k, "Описание " + k))
+                .collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixture.cleanup();
+    }
+
+    @Test
+    void jsonArrayStreamReturnsAllItemsInIdOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get("/items/stream").header(USER_HEADER, owner))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(itemIds.toArray())));
+    }
+
+    @Test
+    void ndjsonStreamReturnsTheSameItems() throws Exception {
+        MvcResult result = mockMvc.perform(get("/reactive/items").header(USER_HEADER, owner))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(ITEMS, body.lines().filter(line -> !line.isBlank()).count());
+    }
+
+    //ошибка первой порции - обычный ответ, а не оборванный поток
+    @Test
+    void unknownOwnerIsNotFound() throws Exception {
+        mockMvc.perform(get("/items/stream").header(USER_HEADER, Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositary.ItemRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemSearchIndex index = new ItemSearchIndex(itemRepository, 2, 60000, Clock.systemDefaultZone());
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findsSubstringOfNameOrDescriptionIgnoringCase() {
+        index.index(item(1, "Дрель", "Ударная дрель", true));
+        index.index(item(2, "Отвертка", "Аккумуляторная", true));
+
+        assertEquals(List.of(1), index.search("дРЕль"));
+        assertEquals(List.of(2), index.search("УМУЛЯ"));
+        assertEquals(List.of(), index.search("пила"));
+    }
+
+    //текст с символами вне однобайтового кода хранится как char[] и ищется так же
+    @Test
+    void findsTextOutsideCompactAlphabet() {
+        index.index(item(1, "Schlüssel", "Größe M", true));
+        index.index(item(2, "Ёлка", "Drill 18V", true));
+
+        assertEquals(List.of(1), index.search("SCHLÜ"));
+        assertEquals(List.of(1), index.search("größe"));
+        assertEquals(List.of(2), index.search("ёлка"));
+        assertEquals(List.of(2), index.search("drill 18"));
+        assertEquals(List.of(), index.search("schlü drill"));
+    }
+
+    //запрос не совпадает на стыке названия и описания
+    @Test
+    void doesNotMatchAcrossFields() {
+        index.index(item(1, "Дрель", "Ударная", true));
+
+        assertEquals(List.of(), index.search("ьуд"));
+        assertEquals(List.of(), index.search("ьу"));
+        assertEquals(List.of(), index.search("рельуд"));
+    }
+
+    @Test
+    void reindexReplacesAndRemoveDropsItem() {
+        index.index(item(1, "Дрель", "Ударная", true));
+        index.index(item(1, "Пила", "Ручная", true));
+        assertEquals(List.of(), index.search("дрель"));
+        assertEquals(List.of(), index.search("д"));
+        assertEquals(List.of(1), index.search("пила"));
+
+        index.remove(1);
+        assertEquals(List.of(), index.search("пила"));
+        assertEquals(List.of(), index.search("п"));
+    }
+
+    @Test
+    void unavailableItemIsRemoved() {
+        index.index(item(1, "Дрель", "Ударная", true));
+        index.index(item(1, "Дрель", "Ударная", false));
+
+        assertEquals(List.of(), index.search("дрель"));
+    }
+
+    //короткие запросы отвечаются списками одно- и двухсимвольных подстрок
+    @Test
+    void shortQueriesUseTheirOwnPostings() {
+        index.index(item(1, "Дрель", "Ударная", true));
+        index.index(item(2, "Ящик", "Для дрели", true));
+
+        assertEquals(List.of(1, 2), index.search("др"));
+        assertEquals(List.of(1), index.search("ь"));
+        assertEquals(List.of(), index.search(""));
+    }
+
+    @Test
+    void resultsAreLimitedToSmallestIds() {
+        index.index(item(3, "Дрель", "Третья", true));
+        index.index(item(1, "Дрель", "Первая", true));
+        index.index(item(2, "Дрель", "Вторая", true));
+
+        assertEquals(List.of(1, 2), index.search("дрель"));
+        assertEquals(List.of(1, 2), index.search("др"));
+    }
+
+    //догон мог прочитать вещь до правки, уже внесенной после коммита
+    @Test
+    void olderVersionDoesNotReplaceNewer() {
+        index.index(item(1, "Пила", "Ручная", true, 2));
+        index.index(item(1, "Дрель", "Ударная", true, 1));
+
+        assertEquals(List.of(1), index.search("пила"));
+        assertEquals(List.of(), index.search("дрель"));
+    }
+
+    @Test
+    void rebuildReplacesIndexContents() {
+        index.index(item(1, "Дрель", "Ударная", true));
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item(2, "Пила", "Ручная", true))));
+
+        index.rebuild();
+
+        assertEquals(List.of(), index.search("дрель"));
+        assertEquals(List.of(2), index.search("пила"));
+    }
+
+    //вещь изменил другой экземпляр - плановый проход подбирает ее по UPDATED_AT
+    @Test
+    void catchUpIndexesItemsChangedElsewhere() {
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        index.rebuild();
+        when(itemRepository.findChangedSince(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(item(5, "Лодка", "Надувная", true, 1)));
+
+        index.catchUp();
+
+        assertEquals(List.of(5), index.search("лодка"));
+    }
+
+    @Test
+    void indexAfterCommitWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.indexAfterCommit(item(1, "Дрель", "Ударная", true));
+        assertEquals(List.of(), index.search("дрель"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of(1), index.search("дрель"));
+    }
+
+    //при откате afterCommit не вызывается - вещь в индекс не попадает
+    @Test
+    void indexAfterCommitIgnoresRolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.indexAfterCommit(item(1, "Дрель", "Ударная", true));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(List.of(), index.search("дрель"));
+    }
+
+    private static Item item(Integer id, String name, String description, boolean available) {
+        return item(id, name, description, available, 0);
+    }
+
+    private static Item item(Integer id, String name, String description, boolean available, int version) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setVersion(version);
+        return item;
+    }
+}
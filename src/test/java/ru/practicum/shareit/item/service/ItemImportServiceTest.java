@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItFixture;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemImportServiceTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemImportService importService;
+
+    private ShareItFixture fixture;
+
+    @BeforeEach
+    void createFixture() {
+        fixture = new ShareItFixture(jdbcTemplate);
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixture.cleanup();
+    }
+
+    //вторая строка не влезает в колонку - порция откатывается, первая строка сохраняется повторно одна
+    @Test
+    void rowsOfFailedChunkAreSavedAsNewItems() throws Exception {
+        int owner = fixture.user("Владелец");
+        String body = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"" + "Я".repeat(60) + "\",\"description\":\"Длинная\",\"available\":true}\n";
+
+        ItemImportResultDto result = importService.importItems(owner,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(List.of(0), jdbcTemplate.queryForList("SELECT VERSION FROM ITEMS WHERE OWNER_ID = ?",
+                Integer.class, owner));
+    }
+}
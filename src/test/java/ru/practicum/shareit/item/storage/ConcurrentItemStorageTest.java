@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.StorageJournals;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentItemStorageTest {
+    private final ConcurrentItemStorage storage = new ConcurrentItemStorage(new StorageJournals("", 0, 0));
+
+    //изменение отданной или переданной вещи хранилище не задевает
+    @Test
+    void storesAndReturnsCopies() {
+        Item item = item(1, 10, "Дрель", "Ударная", true);
+        storage.createItem(item);
+        item.setName("Пила");
+        storage.getItemById(1).orElseThrow().setName("Молоток");
+
+        assertEquals("Дрель", storage.getItemById(1).orElseThrow().getName());
+    }
+
+    @Test
+    void ownerIndexFollowsDeleteItem() {
+        storage.createItem(item(3, 10, "Дрель", "Ударная", true));
+        storage.createItem(item(1, 10, "Пила", "Ручная", true));
+        storage.createItem(item(2, 20, "Лодка", "Надувная", true));
+
+        assertEquals(List.of(1, 3), ids(storage.getUsersItems(10)));
+        storage.deleteItem(item(3, 10, "Дрель", "Ударная", true));
+        assertEquals(List.of(1), ids(storage.getUsersItems(10)));
+        storage.deleteItem(item(1, 10, "Пила", "Ручная", true));
+        assertEquals(List.of(), ids(storage.getUsersItems(10)));
+        assertEquals(List.of(2), ids(storage.getItemList()));
+    }
+
+    @Test
+    void searchesAvailableItemsIgnoringCaseWithinOneField() {
+        storage.createItem(item(1, 10, "Дрель", "Ударная", true));
+        storage.createItem(item(2, 10, "Отвертка", "Под дрель", true));
+        storage.createItem(item(3, 10, "Дрель", "Сломанная", false));
+
+        assertEquals(List.of(1, 2), ids(storage.getItemsByContextSearch("дРЕль")));
+        assertEquals(List.of(), ids(storage.getItemsByContextSearch("ьуд")));
+        assertEquals(List.of(), ids(storage.getItemsByContextSearch("")));
+    }
+
+    //ключ поиска пересчитывается при изменении вещи
+    @Test
+    void updateReplacesSearchKey() {
+        storage.createItem(item(1, 10, "Дрель", "Ударная", true));
+        storage.updateItem(item(1, 10, "Пила", "Ручная", true));
+
+        assertEquals(List.of(), ids(storage.getItemsByContextSearch("дрель")));
+        assertEquals(List.of(1), ids(storage.getItemsByContextSearch("пила")));
+        assertEquals(List.of(1), ids(storage.getUsersItems(10)));
+    }
+
+    @Test
+    void concurrentWritesKeepOwnerIndexConsistent() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int id = 1; id <= 1000; id++) {
+            int itemId = id;
+            executor.execute(() -> {
+                storage.createItem(item(itemId, itemId % 4, "Вещь", "Описание", true));
+                if (itemId % 2 == 0) {
+                    storage.deleteItem(item(itemId, itemId % 4, "Вещь", "Описание", true));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(IntStream.rangeClosed(1, 1000).filter(id -> id % 4 == 1).boxed().collect(Collectors.toList()),
+                ids(storage.getUsersItems(1)));
+        assertEquals(List.of(), ids(storage.getUsersItems(2)));
+        assertEquals(500, storage.getItemList().size());
+    }
+
+    private static List<Integer> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private static Item item(int id, int ownerId, String name, String description, boolean available) {
+        User owner = new User();
+        owner.setId(ownerId);
+        owner.setName("Владелец");
+        owner.setEmail(ownerId + "@shareit.ru");
+        Item item = new Item();
+        item.setId(id);
+        item.setOwner(owner);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
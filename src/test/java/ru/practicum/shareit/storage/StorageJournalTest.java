@@ -0,0 +1,131 @@
+package ru.practicum.shareit.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ConcurrentItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.ConcurrentUserStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StorageJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenedStoragesReplayLog() {
+        StorageJournals journals = new StorageJournals(dir.toString(), 1, 0);
+        ConcurrentUserStorage users = new ConcurrentUserStorage(journals);
+        ConcurrentItemStorage items = new ConcurrentItemStorage(journals);
+        users.createUser(user(1, "ivan@shareit.ru"));
+        users.createUser(user(2, "petr@shareit.ru"));
+        users.updateUser(user(1, "ivan.new@shareit.ru"));
+        users.deleteUser(user(2, "petr@shareit.ru"));
+        items.createItem(item(1, 1, "Дрель"));
+        items.createItem(item(2, 1, "Пила"));
+        items.updateItem(item(1, 1, "Лодка"));
+        items.deleteItem(item(2, 1, "Пила"));
+        users.close();
+        items.close();
+
+        ConcurrentUserStorage replayedUsers = new ConcurrentUserStorage(journals);
+        ConcurrentItemStorage replayedItems = new ConcurrentItemStorage(journals);
+
+        assertEquals(List.of("ivan.new@shareit.ru"), emails(replayedUsers.getUserList()));
+        assertEquals(Optional.empty(), replayedUsers.getUserIdByEmail("ivan@shareit.ru"));
+        assertEquals(List.of(1), ids(replayedItems.getUsersItems(1)));
+        Item item = replayedItems.getItemById(1).orElseThrow();
+        assertEquals("Лодка", item.getName());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 12, 0), item.getUpdatedAt());
+        assertEquals(List.of(1), ids(replayedItems.getItemsByContextSearch("лодк")));
+    }
+
+    //после сжатия остаются снимок и хвост последнего поколения, восстановление дает то же состояние
+    @Test
+    void snapshotCompactsLog() throws IOException {
+        StorageJournals journals = new StorageJournals(dir.toString(), 0, 3);
+        ConcurrentItemStorage items = new ConcurrentItemStorage(journals);
+        for (int id = 1; id <= 10; id++) {
+            items.createItem(item(id, id % 2, "Вещь " + id));
+        }
+        items.deleteItem(item(4, 0, "Вещь 4"));
+        items.close();
+
+        assertTrue(Files.exists(dir.resolve("items.snapshot")));
+        assertEquals(List.of("items-3.log"), files("items-*.log"));
+
+        ConcurrentItemStorage replayed = new ConcurrentItemStorage(journals);
+        assertEquals(List.of(2, 6, 8, 10), ids(replayed.getUsersItems(0)));
+        assertEquals(List.of(1, 3, 5, 7, 9), ids(replayed.getUsersItems(1)));
+    }
+
+    //запись, оборванная при сбое, отбрасывается, и журнал продолжается с конца последней целой записи
+    @Test
+    void tornTailIsDropped() throws IOException {
+        StorageJournals journals = new StorageJournals(dir.toString(), 1, 0);
+        ConcurrentUserStorage users = new ConcurrentUserStorage(journals);
+        users.createUser(user(1, "ivan@shareit.ru"));
+        users.close();
+        Path log = dir.resolve("users-0.log");
+        long size = Files.size(log);
+        //половина заголовка следующей записи
+        Files.write(log, new byte[]{0, 0, 0, 42}, StandardOpenOption.APPEND);
+
+        ConcurrentUserStorage reopened = new ConcurrentUserStorage(journals);
+        assertEquals(size, Files.size(log));
+        reopened.createUser(user(2, "petr@shareit.ru"));
+        reopened.close();
+
+        assertEquals(List.of("ivan@shareit.ru", "petr@shareit.ru"),
+                emails(new ConcurrentUserStorage(journals).getUserList()));
+    }
+
+    private List<String> files(String glob) throws IOException {
+        try (Stream<Path> paths = Files.list(dir)) {
+            return paths.filter(dir.getFileSystem().getPathMatcher("glob:" + dir.resolve(glob))::matches)
+                    .map(path -> path.getFileName().toString())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> emails(List<User> users) {
+        return users.stream().map(User::getEmail).collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private static User user(int id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Пользователь " + id);
+        user.setEmail(email);
+        user.setVersion(0);
+        return user;
+    }
+
+    private static Item item(int id, int ownerId, String name) {
+        Item item = new Item();
+        item.setId(id);
+        item.setOwner(user(ownerId, ownerId + "@shareit.ru"));
+        item.setName(name);
+        item.setDescription("Описание");
+        item.setAvailable(true);
+        item.setVersion(0);
+        item.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+        return item;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.storage.StorageJournals;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentUserStorageTest {
+    private final ConcurrentUserStorage storage = new ConcurrentUserStorage(new StorageJournals("", 0, 0));
+
+    @Test
+    void storesAndReturnsCopies() {
+        User user = user(1, "Иван", "ivan@shareit.ru");
+        storage.createUser(user);
+        user.setName("Петр");
+        storage.getUserById(1).orElseThrow().setName("Сидор");
+
+        assertEquals("Иван", storage.getUserById(1).orElseThrow().getName());
+    }
+
+    @Test
+    void emailBelongsToOneUser() {
+        storage.createUser(user(1, "Иван", "ivan@shareit.ru"));
+        storage.createUser(user(2, "Петр", "petr@shareit.ru"));
+
+        assertThrows(ConflictException.class, () -> storage.createUser(user(3, "Иван", "ivan@shareit.ru")));
+        assertThrows(ConflictException.class, () -> storage.updateUser(user(2, "Петр", "ivan@shareit.ru")));
+        assertEquals("petr@shareit.ru", storage.getUserById(2).orElseThrow().getEmail());
+        assertEquals(Optional.empty(), storage.getUserById(3));
+    }
+
+    //старый адрес освобождается при смене адреса и при удалении
+    @Test
+    void changedAndDeletedEmailsAreReleased() {
+        storage.createUser(user(1, "Иван", "ivan@shareit.ru"));
+        storage.updateUser(user(1, "Иван", "ivan.new@shareit.ru"));
+        assertEquals(Optional.empty(), storage.getUserIdByEmail("ivan@shareit.ru"));
+        assertEquals(Optional.of(1), storage.getUserIdByEmail("ivan.new@shareit.ru"));
+
+        storage.deleteUser(user(1, "Иван", "ivan.new@shareit.ru"));
+        storage.createUser(user(2, "Петр", "ivan.new@shareit.ru"));
+        assertEquals(Optional.of(2), storage.getUserIdByEmail("ivan.new@shareit.ru"));
+    }
+
+    private static User user(int id, String name, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}